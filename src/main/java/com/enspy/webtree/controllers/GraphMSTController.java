@@ -1,11 +1,18 @@
 package com.enspy.webtree.controllers;
 
-import com.enspy.webtree.graph.GraphBuilder;
+import com.enspy.webtree.graph.CompactGraph;
 import com.enspy.webtree.graph.Edge;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.arbreCouvrant.Boruvka;
 import com.enspy.webtree.graph.arbreCouvrant.Prim;
 import com.enspy.webtree.graph.arbreCouvrant.Kruskal;
+import com.enspy.webtree.services.GraphResponseCache;
+import com.enspy.webtree.services.GraphSnapshotService;
+import com.enspy.webtree.services.MinimumSpanningTreeService;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -13,21 +20,54 @@ import java.util.*;
 @RequestMapping("/api/mst")
 public class GraphMSTController {
 
-    private final GraphBuilder graphBuilder = new GraphBuilder();
-    private final Prim prim = new Prim();
-    private final Kruskal kruskal = new Kruskal();
+    @Autowired
+    private GraphSnapshotService graphSnapshotService;
 
+    @Autowired
+    private Prim prim;
+
+    @Autowired
+    private Kruskal kruskal;
+
+    @Autowired
+    private Boruvka boruvka;
+
+    @Autowired
+    private MinimumSpanningTreeService minimumSpanningTreeService;
+
+    @Autowired
+    private GraphResponseCache graphResponseCache;
+
+    // Sans sourceId (ou avec forest=true), forêt couvrante de toutes les composantes
     @GetMapping("/prim")
-    public List<Edge> runPrim(@RequestParam UUID sourceId) {
-        Map<UUID, List<GraphBuilder.Neighbor>> graph = graphBuilder.buildGraph();
-        Set<Edge> mst = prim.findMST(graph, sourceId);
+    public List<Edge> runPrim(@RequestParam(required = false) UUID sourceId,
+                              @RequestParam(required = false) UUID familyId,
+                              @RequestParam(defaultValue = "false") boolean forest,
+                              @RequestParam(defaultValue = "false") boolean parallel) {
+        CompactGraph graph = graphSnapshotService.current(familyId).getGraph();
+        Set<Edge> mst = forest || sourceId == null
+                ? prim.findForest(graph, parallel)
+                : prim.findMST(graph, sourceId);
         return new ArrayList<>(mst); // conversion Set -> List
     }
 
+    // Sur le graphe complet, l'arbre est maintenu au fil des ajouts au lieu d'être recalculé
     @GetMapping("/kruskal")
-    public List<Edge> runKruskal() {
-        Map<UUID, List<GraphBuilder.Neighbor>> graph = graphBuilder.buildGraph();
-        Set<Edge> mst = kruskal.findMST(graph);
-        return new ArrayList<>(mst); // conversion Set -> List
+    public List<Edge> runKruskal(@RequestParam(required = false) UUID familyId, WebRequest request) {
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        return graphResponseCache.get("mst/kruskal", familyId, snapshot, () -> {
+            if (familyId == null) return minimumSpanningTreeService.currentTree(snapshot);
+            Set<Edge> mst = kruskal.findMST(snapshot.getGraph());
+            return new ArrayList<>(mst); // conversion Set -> List
+        });
+    }
+
+    // Même résultat que Kruskal, calculé en parallèle
+    @GetMapping("/boruvka")
+    public List<Edge> runBoruvka(@RequestParam(required = false) UUID familyId) {
+        CompactGraph graph = graphSnapshotService.current(familyId).getGraph();
+        Set<Edge> mst = boruvka.findMST(graph);
+        return new ArrayList<>(mst);
     }
 }
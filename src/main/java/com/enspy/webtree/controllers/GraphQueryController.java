@@ -0,0 +1,126 @@
+package com.enspy.webtree.controllers;
+
+import com.enspy.webtree.dto.requests.RelatedPairDTO;
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.parente.AncestorIndex;
+import com.enspy.webtree.graph.parente.Neighbourhood;
+import com.enspy.webtree.graph.parente.ReachabilityIndex;
+import com.enspy.webtree.services.ConnectivityService;
+import com.enspy.webtree.services.GenealogyIndexService;
+import com.enspy.webtree.services.GraphSnapshotService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/graph")
+public class GraphQueryController {
+
+    @Autowired
+    private ConnectivityService connectivityService;
+
+    @Autowired
+    private GenealogyIndexService genealogyIndexService;
+
+    @Autowired
+    private GraphSnapshotService graphSnapshotService;
+
+    // Deux personnes sont reliées si une chaîne de relations, dans un sens ou dans l'autre, les joint
+    @GetMapping("/related")
+    public Map<String, Object> related(@RequestParam UUID a, @RequestParam UUID b) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("a", a);
+        response.put("b", b);
+        response.put("related", connectivityService.related(a, b));
+        return response;
+    }
+
+    @PostMapping("/related")
+    public List<Map<String, Object>> relatedBulk(@RequestBody List<RelatedPairDTO> pairs) {
+        List<Boolean> answers = connectivityService.related(pairs);
+        List<Map<String, Object>> response = new ArrayList<>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("a", pairs.get(i).getA());
+            entry.put("b", pairs.get(i).getB());
+            entry.put("related", answers.get(i));
+            response.add(entry);
+        }
+        return response;
+    }
+
+    // Ancêtre(s) commun(s) le(s) plus proche(s) et degré de parenté ; relation source -> target lue comme parent -> enfant
+    @GetMapping("/kinship")
+    public Map<String, Object> kinship(@RequestParam UUID a, @RequestParam UUID b) {
+        AncestorIndex index = genealogyIndexService.ancestorIndex();
+        int u = index.getGraph().indexOf(a);
+        int v = index.getGraph().indexOf(b);
+        AncestorIndex.Kinship kinship = u < 0 || v < 0 ? null : index.kinship(u, v);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("a", a);
+        response.put("b", b);
+        response.put("found", kinship != null);
+        if (kinship != null) {
+            response.put("commonAncestors", kinship.getCommonAncestors());
+            response.put("generationsFromA", kinship.getGenerationsFromA());
+            response.put("generationsFromB", kinship.getGenerationsFromB());
+            response.put("generationGap", kinship.getGenerationGap());
+            response.put("directLine", kinship.isDirectLine());
+            response.put("cousinDegree", kinship.isDirectLine() ? null : kinship.getCousinDegree());
+            response.put("removed", kinship.getRemoved());
+        }
+        return response;
+    }
+
+    // x est-il un ancêtre de y : y descend de x par une chaîne de relations source -> target
+    @GetMapping("/is-ancestor")
+    public Map<String, Object> isAncestor(@RequestParam UUID x, @RequestParam UUID y) {
+        ReachabilityIndex index = genealogyIndexService.reachabilityIndex();
+        int u = index.getGraph().indexOf(x);
+        int v = index.getGraph().indexOf(y);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("x", x);
+        response.put("y", y);
+        response.put("ancestor", u >= 0 && v >= 0 && index.isAncestor(u, v));
+        return response;
+    }
+
+    // Ancêtres sur up générations, descendants sur down générations, et relations entre eux
+    @GetMapping("/neighbourhood")
+    public Map<String, Object> neighbourhood(@RequestParam UUID root,
+                                             @RequestParam(defaultValue = "1") int up,
+                                             @RequestParam(defaultValue = "1") int down,
+                                             @RequestParam(required = false) UUID familyId) {
+        CompactGraph graph = graphSnapshotService.current(familyId).getGraph();
+        Neighbourhood neighbourhood = Neighbourhood.of(graph, graph.indexOf(root), Math.max(0, up), Math.max(0, down));
+
+        List<Map<String, Object>> nodes = new ArrayList<>(neighbourhood.size());
+        for (int i = 0; i < neighbourhood.size(); i++) {
+            Map<String, Object> node = new HashMap<>();
+            node.put("id", graph.idOf(neighbourhood.vertex(i)));
+            node.put("generation", neighbourhood.generation(i));
+            node.put("moreParents", neighbourhood.hasHiddenParents(i));
+            node.put("moreChildren", neighbourhood.hasHiddenChildren(i));
+            nodes.add(node);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("root", root);
+        response.put("found", neighbourhood.size() > 0);
+        response.put("nodes", nodes);
+        response.put("edges", neighbourhood.getEdges());
+        return response;
+    }
+
+    // Relit toutes les relations en base, après une modification faite hors de l'application
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("version", graphSnapshotService.reload().getVersion());
+        return response;
+    }
+}
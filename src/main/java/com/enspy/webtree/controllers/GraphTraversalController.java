@@ -2,11 +2,25 @@ package com.enspy.webtree.controllers;
 
 import com.enspy.webtree.graph.parcourt.BFS;
 import com.enspy.webtree.graph.parcourt.DFS;
-import com.enspy.webtree.graph.GraphBuilder;
-import com.enspy.webtree.graph.GraphBuilder.Neighbor;
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.services.GraphResponseCache;
+import com.enspy.webtree.services.GraphSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @RestController
@@ -14,7 +28,10 @@ import java.util.*;
 public class GraphTraversalController {
 
     @Autowired
-    private GraphBuilder graphBuilder;
+    private GraphSnapshotService graphSnapshotService;
+
+    @Autowired
+    private GraphResponseCache graphResponseCache;
 
     @Autowired
     private DFS dfs;
@@ -24,28 +41,103 @@ public class GraphTraversalController {
 
     // Parcours en profondeur (DFS)
     @GetMapping("/dfs")
-    public Map<String, Object> runDFS() {
-        Map<UUID, List<Neighbor>> graph = graphBuilder.buildGraph();
-        dfs.dfs(graph); // Appel correct avec un seul argument
+    public Map<String, Object> runDFS(@RequestParam(required = false) UUID familyId, WebRequest request) {
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        return graphResponseCache.get("traversal/dfs", familyId, snapshot, () -> {
+            DFS.Result result = dfs.dfs(snapshot.getGraph());
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("parents", dfs.getParents());
-        response.put("discoveryTimes", dfs.getDiscoveryTimes());
-        response.put("finishingTimes", dfs.getFinishTimes());
-        response.put("colors", dfs.getColors());
-        return response;
+            Map<String, Object> response = new HashMap<>();
+            response.put("parents", result.getParents());
+            response.put("discoveryTimes", result.getDiscoveryTimes());
+            response.put("finishingTimes", result.getFinishTimes());
+            response.put("colors", result.getColors());
+            return response;
+        });
     }
 
     // Parcours en largeur (BFS)
     @GetMapping("/bfs")
-    public Map<String, Object> runBFS(@RequestParam UUID sourceId) {
-        Map<UUID, List<Neighbor>> graph = graphBuilder.buildGraph();
-        bfs.bfs(graph, sourceId);
+    public Map<String, Object> runBFS(@RequestParam UUID sourceId,
+                                      @RequestParam(required = false) UUID familyId) {
+        CompactGraph graph = graphSnapshotService.current(familyId).getGraph();
+        BFS.Result result = bfs.bfs(graph, sourceId);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("distances", bfs.getDistances());
-        response.put("parents", bfs.getParents());
-        response.put("colors", bfs.getColors());
+        response.put("distances", result.getDistances());
+        response.put("parents", result.getParents());
+        response.put("colors", result.getColors());
         return response;
     }
+
+    /**
+     * BFS en flux NDJSON : une ligne JSON par sommet, écrite dès sa découverte, sans construire
+     * de réponse en mémoire. fields choisit les champs parmi id, distance et parent.
+     */
+    @GetMapping(value = "/bfs/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBFS(@RequestParam UUID sourceId,
+                                                           @RequestParam(required = false) UUID familyId,
+                                                           @RequestParam(defaultValue = "-1") int maxDepth,
+                                                           @RequestParam(defaultValue = "id,distance,parent") List<String> fields) {
+        // Graphe fixé avant l'écriture : le flux reste cohérent même si une relation est ajoutée entre-temps
+        CompactGraph graph = graphSnapshotService.current(familyId).getGraph();
+        boolean withId = false, withDistance = false, withParent = false;
+        for (String field : fields) {
+            switch (field.trim()) {
+                case "id" -> withId = true;
+                case "distance" -> withDistance = true;
+                case "parent" -> withParent = true;
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ inconnu : " + field);
+            }
+        }
+        boolean id = withId, distance = withDistance, parent = withParent;
+
+        StreamingResponseBody body = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try {
+                bfs.bfs(graph, sourceId, maxDepth, (vertex, from, depth) -> {
+                    try {
+                        writeRecord(writer, graph, vertex, from, depth, id, distance, parent);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client déconnecté : le parcours s'arrête avec l'écriture
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // Les valeurs sont des UUID et des entiers : pas d'échappement nécessaire
+    private static void writeRecord(Writer writer, CompactGraph graph, int vertex, int parent, int depth,
+                                    boolean withId, boolean withDistance, boolean withParent) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        if (withId) {
+            writer.write("\"id\":\"");
+            writer.write(graph.idOf(vertex).toString());
+            writer.write('"');
+            first = false;
+        }
+        if (withDistance) {
+            if (!first) writer.write(',');
+            writer.write("\"distance\":");
+            writer.write(Integer.toString(depth));
+            first = false;
+        }
+        if (withParent) {
+            if (!first) writer.write(',');
+            if (parent < 0) {
+                writer.write("\"parent\":null");
+            } else {
+                writer.write("\"parent\":\"");
+                writer.write(graph.idOf(parent).toString());
+                writer.write('"');
+            }
+        }
+        writer.write("}\n");
+    }
 }
@@ -1,11 +1,24 @@
 package com.enspy.webtree.controllers;
 
-import com.enspy.webtree.graph.GraphBuilder;
-import com.enspy.webtree.graph.CheminMinimal.BellmanFordSolver;
+import com.enspy.webtree.dto.requests.PathRequestDTO;
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.GraphSnapshot;
 import com.enspy.webtree.graph.CheminMinimal.DijkstraSolver;
+import com.enspy.webtree.graph.CheminMinimal.DistanceMatrix;
+import com.enspy.webtree.graph.CheminMinimal.PathResult;
+import com.enspy.webtree.graph.CheminMinimal.ShortestPathTree;
+import com.enspy.webtree.services.AllPairsService;
+import com.enspy.webtree.services.GraphLogicServices;
+import com.enspy.webtree.services.GraphResponseCache;
+import com.enspy.webtree.services.GraphSnapshotService;
+import com.enspy.webtree.services.PathSearchService;
+import com.enspy.webtree.services.ShortestPathTreeService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 
@@ -17,29 +30,149 @@ public class SearchController {
     private DijkstraSolver dijkstraSolver;
 
     @Autowired
-    private BellmanFordSolver bellmanFordSolver;
+    private ShortestPathTreeService shortestPathTreeService;
 
     @Autowired
-    private GraphBuilder graphBuilder;
+    private GraphSnapshotService graphSnapshotService;
 
+    @Autowired
+    private PathSearchService pathSearchService;
+
+    @Autowired
+    private AllPairsService allPairsService;
+
+    @Autowired
+    private GraphResponseCache graphResponseCache;
+
+    @Autowired
+    private GraphLogicServices graphLogicServices;
+
+    // Algorithme choisi d'après le graphe : BFS, Dijkstra ou Bellman-Ford (explain : plan suivi)
+    @GetMapping("/path")
+    public Map<String, Object> searchPath(
+            @RequestParam UUID sourceId,
+            @RequestParam UUID targetId,
+            @RequestParam(required = false) UUID familyId,
+            @RequestParam(defaultValue = "false") boolean explain,
+            WebRequest request
+    ) {
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        return graphResponseCache.get("search/path", familyId, snapshot,
+                () -> graphLogicServices.shortestPath(snapshot.getGraph(), sourceId, targetId, explain),
+                sourceId, targetId, explain);
+    }
+
+    // Sans bidirectional : arrêt sur la cible à la première demande d'une source, arbre gardé en cache dès la deuxième
     @GetMapping("/dijkstra")
     public Map<String, Object> searchWithDijkstra(
             @RequestParam UUID sourceId,
-            @RequestParam UUID targetId
+            @RequestParam UUID targetId,
+            @RequestParam(required = false) UUID familyId,
+            @RequestParam(defaultValue = "false") boolean bidirectional,
+            WebRequest request
     ) {
-        Map<UUID, List<GraphBuilder.Neighbor>> graph = graphBuilder.buildGraph();
-        List<UUID> path = dijkstraSolver.findShortestPath(sourceId, targetId, graph);
-        return buildResponse("dijkstra", sourceId, targetId, path);
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        boolean[] computed = new boolean[2]; // Réponse calculée par cette requête, arbre déjà en cache
+        Map<String, Object> body = graphResponseCache.get("search/dijkstra", familyId, snapshot, () -> {
+            computed[0] = true;
+            PathResult result;
+            if (bidirectional) {
+                result = dijkstraSolver.findShortestPathBidirectional(sourceId, targetId, snapshot.getGraph());
+            } else {
+                computed[1] = shortestPathTreeService.cached(snapshot, familyId, sourceId, ShortestPathTreeService.DIJKSTRA) != null;
+                ShortestPathTree tree = shortestPathTreeService.treeIfRepeated(snapshot, familyId, sourceId, ShortestPathTreeService.DIJKSTRA);
+                result = tree != null
+                        ? tree.toPathResult(targetId)
+                        : dijkstraSolver.findShortestPath(sourceId, targetId, snapshot.getGraph());
+            }
+            Map<String, Object> response = buildResponse("dijkstra", sourceId, targetId, result.getPath());
+            response.put("settledNodes", result.getSettledNodes());
+            return response;
+        }, sourceId, targetId, bidirectional);
+        return withCachedFlag(body, !computed[0] || computed[1]);
     }
 
     @GetMapping("/bellman-ford")
     public Map<String, Object> searchWithBellmanFord(
             @RequestParam UUID sourceId,
-            @RequestParam UUID targetId
+            @RequestParam UUID targetId,
+            @RequestParam(required = false) UUID familyId,
+            WebRequest request
     ) {
-        Map<UUID, List<GraphBuilder.Neighbor>> graph = graphBuilder.buildGraph();
-        List<UUID> path = bellmanFordSolver.findShortestPath(sourceId, targetId, graph); // Passer le graphe ici
-        return buildResponse("bellman-ford", sourceId, targetId, path);
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        boolean[] computed = new boolean[2];
+        Map<String, Object> body = graphResponseCache.get("search/bellman-ford", familyId, snapshot, () -> {
+            computed[0] = true;
+            // Avec des poids négatifs, SPFA va jusqu'au bout même avec une cible : l'arbre ne coûte pas plus
+            computed[1] = shortestPathTreeService.cached(snapshot, familyId, sourceId, ShortestPathTreeService.BELLMAN_FORD) != null;
+            PathResult result = shortestPathTreeService.tree(snapshot, familyId, sourceId, ShortestPathTreeService.BELLMAN_FORD)
+                    .toPathResult(targetId);
+            Map<String, Object> response = buildResponse("bellman-ford", sourceId, targetId, result.getPath());
+            // Un circuit négatif rend la distance indéfinie : il est renvoyé à la place du chemin
+            response.put("negativeCycle", result.getNegativeCycle());
+            return response;
+        }, sourceId, targetId);
+        return withCachedFlag(body, !computed[0] || computed[1]);
+    }
+
+    // Plusieurs chemins en une requête : un seul arbre par source, groupes calculés en parallèle
+    @PostMapping("/batch")
+    public Map<String, Object> searchBatch(
+            @RequestBody List<PathRequestDTO> requests,
+            @RequestParam(required = false) UUID familyId
+    ) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", pathSearchService.batch(requests, familyId));
+        response.put("count", requests.size());
+        return response;
+    }
+
+    // Distances entre tous les membres d'une famille, lignes fromRow à fromRow + rows - 1
+    @GetMapping("/all-pairs")
+    public Map<String, Object> allPairs(
+            @RequestParam UUID familyId,
+            @RequestParam(defaultValue = "0") int fromRow,
+            @RequestParam(required = false) Integer rows,
+            WebRequest request
+    ) {
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        if (request.checkNotModified(graphResponseCache.etag(snapshot))) return null; // 304
+        return graphResponseCache.get("search/all-pairs", familyId, snapshot, () -> allPairsSlice(snapshot, familyId, fromRow, rows),
+                fromRow, rows);
+    }
+
+    private Map<String, Object> allPairsSlice(GraphSnapshot snapshot, UUID familyId, int fromRow, Integer rows) {
+        DistanceMatrix matrix;
+        try {
+            matrix = allPairsService.matrix(snapshot, familyId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+        CompactGraph graph = matrix.getGraph();
+        int n = matrix.size();
+        int from = Math.max(0, Math.min(fromRow, n));
+        int to = rows == null ? n : (int) Math.min(n, (long) from + Math.max(0, rows));
+
+        List<UUID> members = new ArrayList<>(n); // Ordre des lignes et des colonnes
+        for (int v = 0; v < n; v++) members.add(graph.idOf(v));
+        List<List<Integer>> distances = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int[] row = matrix.row(i);
+            List<Integer> values = new ArrayList<>(n);
+            for (int d : row) values.add(d == DistanceMatrix.UNREACHABLE ? null : d); // null : pas de chemin
+            distances.add(values);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("members", members);
+        response.put("fromRow", from);
+        response.put("distances", distances);
+        response.put("method", matrix.getMethod());
+        response.put("negativeCycle", matrix.hasNegativeCycle());
+        return response;
     }
 
     private Map<String, Object> buildResponse(String algorithm, UUID sourceId, UUID targetId, List<UUID> path) {
@@ -51,4 +184,11 @@ public class SearchController {
         response.put("found", !path.isEmpty());
         return response;
     }
+
+    // Le corps gardé en cache est partagé : cached, propre à chaque requête, est ajouté à une copie
+    private static Map<String, Object> withCachedFlag(Map<String, Object> body, boolean cached) {
+        Map<String, Object> response = new HashMap<>(body);
+        response.put("cached", cached);
+        return response;
+    }
 }
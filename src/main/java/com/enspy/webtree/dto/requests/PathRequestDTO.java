@@ -0,0 +1,17 @@
+package com.enspy.webtree.dto.requests;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PathRequestDTO {
+    private UUID sourceId;
+    private UUID targetId;
+    @Builder.Default
+    private String algorithm = "dijkstra"; // "dijkstra" ou "bellman-ford"
+}
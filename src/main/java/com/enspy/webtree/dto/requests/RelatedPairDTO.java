@@ -0,0 +1,15 @@
+package com.enspy.webtree.dto.requests;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatedPairDTO {
+    private UUID a;
+    private UUID b;
+}
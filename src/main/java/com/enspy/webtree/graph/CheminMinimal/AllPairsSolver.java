@@ -0,0 +1,294 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Plus courts chemins entre tous les couples de sommets.
+ *
+ * Par défaut, un Dijkstra par source : les sources sont réparties en tranches sur un
+ * ForkJoinPool, chaque tâche emprunte un espace de travail à la réserve et écrit directement
+ * sa ligne de la matrice. Pour un petit graphe dense, Floyd–Warshall par blocs (BLOCK x BLOCK
+ * entiers, qui tiennent en cache) est plus rapide que |V| tas. Pour chaque bloc pivot, les
+ * blocs de sa ligne et de sa colonne, puis tous les autres, ne dépendent que du pivot et de
+ * cette ligne et cette colonne : chacune de ces deux phases est répartie par bloc sur le pool.
+ *
+ * Avec des poids négatifs, Dijkstra n'est plus exact. Un petit graphe passe par Floyd–Warshall,
+ * qui signale un éventuel circuit négatif par une diagonale négative. Au-delà, Johnson : un seul
+ * Bellman-Ford depuis une source virtuelle reliée à tous les sommets donne des potentiels h, puis
+ * le Dijkstra parallèle tourne sur les poids w(u, v) + h(u) - h(v), positifs ou nuls. Si
+ * Bellman-Ford trouve un circuit négatif, aucune distance n'a de sens : la matrice est marquée
+ * et ne contient aucun chemin.
+ *
+ * La matrice est un seul tableau de n² entiers : au-delà de {@link #MAX_VERTICES} sommets, elle
+ * ne tient pas dans un tableau Java et le calcul est refusé (IllegalArgumentException).
+ */
+@Component
+public class AllPairsSolver {
+
+    private static final int GRAIN = 8;              // Sources par tâche
+    private static final int BLOCK = 32;
+    private static final int FLOYD_MAX_VERTICES = 256;
+    private static final int INF = DistanceMatrix.UNREACHABLE;
+    public static final int MAX_VERTICES = 46_340; // n² < Integer.MAX_VALUE
+
+    private final ForkJoinPool pool;
+    private final DijkstraWorkspace.Pool workspaces = new DijkstraWorkspace.Pool();
+
+    public AllPairsSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AllPairsSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public DistanceMatrix solve(CompactGraph graph) {
+        int n = graph.vertexCount();
+        long arcs = graph.targets().length;
+        boolean negative = graph.stats().hasNegativeWeights();
+        // Dense : au moins un couple sur huit relié par un arc
+        if (n <= FLOYD_MAX_VERTICES && (negative || arcs * 8 >= (long) n * n)) {
+            return floydWarshall(graph);
+        }
+        return negative ? johnson(graph) : dijkstra(graph);
+    }
+
+    public DistanceMatrix dijkstra(CompactGraph graph) {
+        int n = graph.vertexCount();
+        int[] distances = new int[matrixSize(n)];
+        if (n > 0) pool.invoke(new SourcesTask(0, n, graph, graph.weights(), null, distances));
+        return new DistanceMatrix(graph, distances, "dijkstra", false);
+    }
+
+    public DistanceMatrix johnson(CompactGraph graph) {
+        int n = graph.vertexCount();
+        int[] distances = new int[matrixSize(n)];
+        long[] potentials = potentials(graph);
+        if (potentials == null) {
+            Arrays.fill(distances, INF);
+            return new DistanceMatrix(graph, distances, "johnson", true);
+        }
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        int[] reduced = new int[weights.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                long w = weights[e] + potentials[u] - potentials[targets[e]];
+                if (w >= INF) throw new IllegalStateException("Poids hors de la plage d'un int");
+                reduced[e] = (int) w;
+            }
+        }
+        if (n > 0) pool.invoke(new SourcesTask(0, n, graph, reduced, potentials, distances));
+        return new DistanceMatrix(graph, distances, "johnson", false);
+    }
+
+    public DistanceMatrix floydWarshall(CompactGraph graph) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        int[] d = new int[matrixSize(n)];
+        Arrays.fill(d, INF);
+        for (int u = 0; u < n; u++) {
+            d[u * n + u] = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int at = u * n + targets[e];
+                d[at] = Math.min(d[at], weights[e]);
+            }
+        }
+
+        // Bloc pivot, puis sa ligne et sa colonne de blocs, puis tous les autres blocs
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        for (int pivot = 0; pivot < blocks; pivot++) {
+            int kb = pivot;
+            int k = kb * BLOCK;
+            int kEnd = Math.min(n, k + BLOCK);
+            relaxBlock(d, n, k, kEnd, k, kEnd, k, kEnd);
+            forEachBlock(blocks, b -> {
+                if (b == kb) return;
+                int from = b * BLOCK;
+                int to = Math.min(n, from + BLOCK);
+                relaxBlock(d, n, k, kEnd, from, to, k, kEnd);
+                relaxBlock(d, n, from, to, k, kEnd, k, kEnd);
+            });
+            forEachBlock(blocks * blocks, ij -> {
+                int ib = ij / blocks;
+                int jb = ij % blocks;
+                if (ib == kb || jb == kb) return;
+                int i = ib * BLOCK;
+                int j = jb * BLOCK;
+                relaxBlock(d, n, i, Math.min(n, i + BLOCK), j, Math.min(n, j + BLOCK), k, kEnd);
+            });
+        }
+
+        boolean negativeCycle = false;
+        for (int v = 0; v < n && !negativeCycle; v++) negativeCycle = d[v * n + v] < 0;
+        return new DistanceMatrix(graph, d, "floyd-warshall", negativeCycle);
+    }
+
+    // Nombre de cases d'une matrice n x n, refusé s'il dépasse la taille d'un tableau
+    private static int matrixSize(int n) {
+        if (n > MAX_VERTICES) {
+            throw new IllegalArgumentException("Graphe trop grand pour une matrice complète : " + n + " sommets");
+        }
+        return n * n;
+    }
+
+    /**
+     * Potentiels de Johnson : distances depuis une source virtuelle reliée à chaque sommet par un
+     * arc de poids 0, calculées par Bellman-Ford avec une file de sommets. Retourne null si un
+     * circuit négatif existe, détecté par un plus court chemin de plus de n arcs.
+     */
+    private static long[] potentials(CompactGraph graph) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        long[] h = new long[n];     // 0 : arc direct depuis la source virtuelle
+        int[] hops = new int[n];    // Arcs du chemin retenu, arc virtuel compris
+        boolean[] queued = new boolean[n];
+        int[] queue = new int[n];   // File circulaire : un sommet y figure au plus une fois
+        for (int v = 0; v < n; v++) {
+            hops[v] = 1;
+            queued[v] = true;
+            queue[v] = v;
+        }
+        int head = 0, size = n;
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long candidate = h[u] + weights[e];
+                if (candidate >= h[v]) continue;
+                h[v] = candidate;
+                hops[v] = hops[u] + 1;
+                if (hops[v] > n) return null;
+                if (!queued[v]) {
+                    queued[v] = true;
+                    queue[(head + size) % n] = v;
+                    size++;
+                }
+            }
+        }
+        return h;
+    }
+
+    // Applique body à chaque bloc 0..count-1 sur le pool ; les blocs d'une même phase sont indépendants
+    private void forEachBlock(int count, IntConsumer body) {
+        if (count == 1) {
+            body.accept(0);
+        } else if (count > 1) {
+            pool.invoke(new BlocksTask(0, count, body));
+        }
+    }
+
+    // d[i][j] = min(d[i][j], d[i][k] + d[k][j]) pour i, j, k dans les intervalles donnés, k en boucle externe
+    private static void relaxBlock(int[] d, int n, int iFrom, int iTo, int jFrom, int jTo, int kFrom, int kTo) {
+        for (int k = kFrom; k < kTo; k++) {
+            int kRow = k * n;
+            for (int i = iFrom; i < iTo; i++) {
+                int dik = d[i * n + k];
+                if (dik == INF) continue;
+                int iRow = i * n;
+                for (int j = jFrom; j < jTo; j++) {
+                    int dkj = d[kRow + j];
+                    if (dkj == INF) continue;
+                    long candidate = (long) dik + dkj;
+                    if (candidate < d[iRow + j]) d[iRow + j] = (int) Math.max(candidate, Integer.MIN_VALUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra complet depuis source avec les poids donnés, écrit dans la ligne source de la
+     * matrice. Avec des potentiels (Johnson), la distance réelle vaut d'(s, v) - h(s) + h(v).
+     */
+    private static void dijkstraRow(CompactGraph graph, int[] weights, long[] potentials,
+                                    int source, int[] matrix, DijkstraWorkspace search) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int row = source * n;
+        Arrays.fill(matrix, row, row + n, INF);
+
+        search.reset(n);
+        search.start(source);
+        while (search.hasNext()) {
+            int current = search.settleNext();
+            long distance = search.distance(current);
+            if (potentials != null) distance += potentials[current] - potentials[source];
+            if (distance >= INF || distance < Integer.MIN_VALUE) throw new IllegalStateException("Distance hors de la plage d'un int");
+            matrix[row + current] = (int) distance;
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                search.relax(current, targets[e], weights[e]);
+            }
+        }
+    }
+
+    private final class SourcesTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final CompactGraph graph;
+        private final int[] weights;
+        private final long[] potentials;
+        private final int[] matrix;
+
+        SourcesTask(int lo, int hi, CompactGraph graph, int[] weights, long[] potentials, int[] matrix) {
+            this.lo = lo;
+            this.hi = hi;
+            this.graph = graph;
+            this.weights = weights;
+            this.potentials = potentials;
+            this.matrix = matrix;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= GRAIN) {
+                DijkstraWorkspace search = workspaces.acquire();
+                try {
+                    for (int source = lo; source < hi; source++) dijkstraRow(graph, weights, potentials, source, matrix, search);
+                } finally {
+                    workspaces.release(search);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SourcesTask(lo, mid, graph, weights, potentials, matrix),
+                    new SourcesTask(mid, hi, graph, weights, potentials, matrix));
+        }
+    }
+
+    private static final class BlocksTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final IntConsumer body;
+
+        BlocksTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new BlocksTask(lo, mid, body), new BlocksTask(mid, hi, body));
+        }
+    }
+}
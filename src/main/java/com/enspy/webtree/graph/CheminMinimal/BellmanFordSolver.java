@@ -1,58 +1,129 @@
 package com.enspy.webtree.graph.CheminMinimal;
 
-import com.enspy.webtree.graph.GraphBuilder;
-import com.enspy.webtree.graph.GraphBuilder.Neighbor;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.enspy.webtree.graph.CompactGraph;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
 
+/**
+ * Bellman-Ford piloté par file (SPFA) : seuls les sommets dont la distance a changé au tour
+ * précédent sont réexaminés. Sans circuit négatif, les distances sont exactes après |V|-1 tours ;
+ * une relaxation au tour |V| prouve donc un circuit négatif accessible depuis la source, qui est
+ * retourné au lieu d'un chemin.
+ *
+ * Quand tous les poids sont positifs ou nuls, la recherche s'arrête aussi dès que le plus petit
+ * sommet en file est au moins aussi loin que la cible. Avec des poids négatifs, seul un circuit
+ * négatif permettrait de passer sous cette borne : la recherche va alors jusqu'au bout pour
+ * pouvoir le signaler.
+ */
 @Component
 public class BellmanFordSolver {
 
-    public List<UUID> findShortestPath(UUID sourceId, UUID targetId, Map<UUID, List<Neighbor>> graph) { // Accepte le graphe en paramètre
-        Map<UUID, Integer> distance = new HashMap<>();
-        Map<UUID, UUID> predecessor = new HashMap<>();
+    public PathResult findShortestPath(UUID sourceId, UUID targetId, CompactGraph graph) { // Accepte le graphe en paramètre
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) return new PathResult(List.of(), 0);
+        return search(graph, source, target).toPathResult(targetId);
+    }
+
+    // Arbre complet depuis la source, pour servir plusieurs cibles
+    public ShortestPathTree shortestPathTree(UUID sourceId, CompactGraph graph) {
+        return search(graph, graph.indexOf(sourceId), -1);
+    }
+
+    // Sans cible (target = -1), pas d'arrêt anticipé : toutes les distances sont exactes
+    private ShortestPathTree search(CompactGraph graph, int source, int target) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        boolean nonNegative = !graph.stats().hasNegativeWeights();
 
         // Initialisation
-        for (UUID node : graph.keySet()) {
-            distance.put(node, Integer.MAX_VALUE);
-            predecessor.put(node, null);
-        }
-        distance.put(sourceId, 0);
-
-        boolean changed = true;
-
-        // Boucle principale de Bellman-Ford amélioré
-        while (changed) {
-            changed = false;
-            for (UUID x : graph.keySet()) {
-                for (Neighbor neighbor : graph.get(x)) {
-                    UUID y = neighbor.id;
-                    int weight = neighbor.weight;
-
-                    if (distance.get(x) != Integer.MAX_VALUE && distance.get(x) + weight < distance.getOrDefault(y, Integer.MAX_VALUE)) {
-                        distance.put(y, distance.get(x) + weight);
-                        predecessor.put(y, x);
-                        changed = true;
+        long[] distance = new long[n];
+        int[] predecessor = new int[n];
+        Arrays.fill(distance, Long.MAX_VALUE);
+        Arrays.fill(predecessor, -1);
+        if (source < 0) return new ShortestPathTree(graph, source, distance, predecessor, 0, List.of());
+        distance[source] = 0;
+
+        int[] queue = new int[n];    // Sommets à examiner pendant ce tour
+        int[] next = new int[n];     // Sommets modifiés pendant ce tour
+        boolean[] queued = new boolean[n];
+        int size = 0;
+        queue[size++] = source;
+        int scanned = 0;
+
+        for (int round = 1; size > 0; round++) {
+            if (nonNegative && target >= 0 && distance[target] != Long.MAX_VALUE) {
+                long closest = Long.MAX_VALUE;
+                for (int i = 0; i < size; i++) closest = Math.min(closest, distance[queue[i]]);
+                if (closest >= distance[target]) break; // La distance de la cible ne peut plus diminuer
+            }
+
+            int nextSize = 0;
+            int lastRelaxed = -1;
+            for (int i = 0; i < size; i++) {
+                int x = queue[i];
+                queued[x] = false;
+                scanned++;
+                for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                    int y = targets[e];
+                    long candidate = distance[x] + weights[e];
+                    if (candidate < distance[y]) {
+                        distance[y] = candidate;
+                        predecessor[y] = x;
+                        lastRelaxed = y;
+                        if (!queued[y]) {
+                            queued[y] = true;
+                            next[nextSize++] = y;
+                        }
                     }
                 }
             }
-        }
 
-        // Reconstruction du chemin depuis target vers source
-        LinkedList<UUID> path = new LinkedList<>();
-        UUID current = targetId;
-        while (current != null) {
-            path.addFirst(current);
-            current = predecessor.get(current);
+            if (round >= n && nextSize > 0) {
+                List<UUID> cycle = negativeCycle(graph, predecessor, lastRelaxed);
+                return new ShortestPathTree(graph, source, distance, predecessor, scanned, cycle);
+            }
+            int[] swap = queue;
+            queue = next;
+            next = swap;
+            size = nextSize;
         }
 
-        // Vérification : le chemin commence bien à la source
-        if (path.isEmpty() || !path.getFirst().equals(sourceId)) {
-            return Collections.emptyList();
-        }
+        return new ShortestPathTree(graph, source, distance, predecessor, scanned, List.of());
+    }
+
+    // Circuit du graphe des prédécesseurs : après |V| tours, il est forcément de poids négatif
+    private static List<UUID> negativeCycle(CompactGraph graph, int[] predecessor, int relaxed) {
+        int n = predecessor.length;
+        int v = relaxed;
+        // Remonter |V| prédécesseurs depuis un sommet relâché au dernier tour mène dans le circuit
+        for (int i = 0; i < n && v >= 0; i++) v = predecessor[v];
+        if (v < 0) v = anyCycleVertex(predecessor);
 
-        return path;
+        LinkedList<UUID> cycle = new LinkedList<>();
+        int step = v;
+        do {
+            cycle.addFirst(graph.idOf(step));
+            step = predecessor[step];
+        } while (step != v);
+        return cycle;
+    }
+
+    // Recherche d'un circuit dans la forêt fonctionnelle des prédécesseurs, par sécurité
+    private static int anyCycleVertex(int[] predecessor) {
+        int[] owner = new int[predecessor.length]; // Départ de la remontée qui a marqué le sommet
+        Arrays.fill(owner, -1);
+        for (int start = 0; start < predecessor.length; start++) {
+            int v = start;
+            while (v >= 0 && owner[v] < 0) {
+                owner[v] = start;
+                v = predecessor[v];
+            }
+            if (v >= 0 && owner[v] == start) return v;
+        }
+        throw new IllegalStateException("Relaxation au tour |V| sans circuit de prédécesseurs");
     }
 }
@@ -2,56 +2,159 @@ package com.enspy.webtree.graph.CheminMinimal;
 
 import org.springframework.stereotype.Component;
 
-import com.enspy.webtree.graph.GraphBuilder;
-import com.enspy.webtree.graph.GraphBuilder.Neighbor;
+import com.enspy.webtree.graph.CompactGraph;
 
 import java.util.*;
 
+/**
+ * Plus court chemin point à point (poids positifs ou nuls).
+ *
+ * La recherche s'arrête dès que la cible est définitivement traitée : seuls les sommets plus
+ * proches que la cible sont explorés. La variante bidirectionnelle avance en alternance depuis
+ * la source sur le graphe et depuis la cible sur le graphe transposé, et s'arrête quand la
+ * somme des deux fronts dépasse le meilleur chemin déjà vu.
+ *
+ * La file est un {@link com.enspy.webtree.graph.IndexedMinHeap} avec diminution de clé sur des
+ * distances long ; les tableaux de travail sont empruntés à une réserve bornée
+ * ({@link DijkstraWorkspace.Pool}), si bien qu'une requête n'alloue plus que le chemin retourné.
+ */
 @Component
 public class DijkstraSolver {
 
-    public List<UUID> findShortestPath(UUID source, UUID target, Map<UUID, List<GraphBuilder.Neighbor>> graph) {
-        Map<UUID, Integer> distances = new HashMap<>();
-        Map<UUID, UUID> previous = new HashMap<>();
-        Set<UUID> visited = new HashSet<>();
-        PriorityQueue<UUID> queue = new PriorityQueue<>(Comparator.comparingInt(distances::get));
+    private final DijkstraWorkspace.Pool workspaces = new DijkstraWorkspace.Pool();
 
-        for (UUID node : graph.keySet()) {
-            distances.put(node, Integer.MAX_VALUE);
+    public PathResult findShortestPath(UUID source, UUID target, CompactGraph graph) {
+        int s = graph.indexOf(source);
+        int t = graph.indexOf(target);
+        if (s < 0 || t < 0) return new PathResult(List.of(), 0);
+
+        DijkstraWorkspace search = workspaces.acquire();
+        try {
+            return findShortestPath(graph, s, t, search);
+        } finally {
+            workspaces.release(search);
         }
+    }
 
-        distances.put(source, 0);
-        queue.add(source);
+    private static PathResult findShortestPath(CompactGraph graph, int s, int t, DijkstraWorkspace search) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
 
-        while (!queue.isEmpty()) {
-            UUID current = queue.poll();
-            if (visited.contains(current)) continue;
-            visited.add(current);
+        search.reset(graph.vertexCount());
+        search.start(s);
 
-            if (!graph.containsKey(current)) continue;
+        while (search.hasNext()) {
+            int current = search.settleNext();
+            if (current == t) break; // La distance de la cible ne peut plus diminuer
 
-            for (GraphBuilder.Neighbor neighbor : graph.get(current)) {
-                if (visited.contains(neighbor.id)) continue;
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                search.relax(current, targets[e], weights[e]);
+            }
+        }
 
-                int newDist = distances.get(current) + neighbor.weight;
-                if (newDist < distances.getOrDefault(neighbor.id, Integer.MAX_VALUE)) {
-                    distances.put(neighbor.id, newDist);
-                    previous.put(neighbor.id, current);
-                    queue.add(neighbor.id);
+        if (!search.isSettled(t)) return new PathResult(List.of(), search.settledCount());
+        LinkedList<UUID> path = new LinkedList<>();
+        for (int step = t; step >= 0; step = search.previous(step)) {
+            path.addFirst(graph.idOf(step));
+        }
+        return new PathResult(path, search.settledCount());
+    }
+
+    // Arbre complet depuis la source, pour servir plusieurs cibles
+    public ShortestPathTree shortestPathTree(UUID source, CompactGraph graph) {
+        int n = graph.vertexCount();
+        int s = graph.indexOf(source);
+        long[] distances = new long[n];
+        int[] predecessors = new int[n];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        Arrays.fill(predecessors, -1);
+        if (s < 0) return new ShortestPathTree(graph, s, distances, predecessors, 0, List.of());
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        DijkstraWorkspace search = workspaces.acquire();
+        try {
+            search.reset(n);
+            search.start(s);
+            while (search.hasNext()) {
+                int current = search.settleNext();
+                distances[current] = search.distance(current);
+                predecessors[current] = search.previous(current);
+                for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                    search.relax(current, targets[e], weights[e]);
                 }
             }
+            return new ShortestPathTree(graph, s, distances, predecessors, search.settledCount(), List.of());
+        } finally {
+            workspaces.release(search);
         }
+    }
 
-        // Reconstruct path
-        List<UUID> path = new ArrayList<>();
-        UUID step = target;
-        while (step != null && previous.containsKey(step)) {
-            path.add(step);
-            step = previous.get(step);
+    public PathResult findShortestPathBidirectional(UUID source, UUID target, CompactGraph graph) {
+        int s = graph.indexOf(source);
+        int t = graph.indexOf(target);
+        if (s < 0 || t < 0) return new PathResult(List.of(), 0);
+        if (s == t) return new PathResult(List.of(source), 1);
+
+        DijkstraWorkspace forward = workspaces.acquire();
+        DijkstraWorkspace backward = workspaces.acquire();
+        try {
+            return findShortestPathBidirectional(graph, s, t, forward, backward);
+        } finally {
+            workspaces.release(forward);
+            workspaces.release(backward);
         }
-        if (step == source) path.add(source);
-        Collections.reverse(path);
+    }
 
-        return path.isEmpty() || path.get(0) != source ? List.of() : path;
+    private static PathResult findShortestPathBidirectional(CompactGraph graph, int s, int t,
+                                                            DijkstraWorkspace forward, DijkstraWorkspace backward) {
+        CompactGraph reverse = graph.reverse();
+        forward.reset(graph.vertexCount());
+        backward.reset(graph.vertexCount());
+        forward.start(s);
+        backward.start(t);
+        long best = Long.MAX_VALUE;
+        int meetFrom = -1, meetTo = -1; // Arc meetFrom -> meetTo reliant les deux recherches
+
+        while (forward.hasNext() && backward.hasNext()) {
+            // Aucun chemin passant par un sommet encore en file ne peut battre le meilleur connu
+            if (forward.nextDistance() + backward.nextDistance() >= best) break;
+
+            boolean fromSource = forward.nextDistance() <= backward.nextDistance();
+            DijkstraWorkspace search = fromSource ? forward : backward;
+            DijkstraWorkspace other = fromSource ? backward : forward;
+            CompactGraph side = fromSource ? graph : reverse;
+            int[] offsets = side.offsets();
+            int[] targets = side.targets();
+            int[] weights = side.weights();
+            int u = search.settleNext();
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                search.relax(u, v, weights[e]);
+                if (other.isReached(v)) {
+                    long candidate = search.distance(u) + weights[e] + other.distance(v);
+                    if (candidate < best) {
+                        best = candidate;
+                        meetFrom = fromSource ? u : v;
+                        meetTo = fromSource ? v : u;
+                    }
+                }
+            }
+        }
+
+        int settled = forward.settledCount() + backward.settledCount();
+        if (meetFrom < 0) return new PathResult(List.of(), settled);
+
+        LinkedList<UUID> path = new LinkedList<>();
+        for (int step = meetFrom; step >= 0; step = forward.previous(step)) {
+            path.addFirst(graph.idOf(step));
+        }
+        for (int step = meetTo; step >= 0; step = backward.previous(step)) {
+            path.addLast(graph.idOf(step));
+        }
+        return new PathResult(path, settled);
     }
 }
@@ -0,0 +1,137 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tableaux de travail d'une recherche de Dijkstra, empruntés à une réserve ({@link Pool}) pour
+ * la durée d'une recherche puis rendus pour la suivante. Une génération est attribuée à chaque
+ * recherche : un sommet n'a de distance que si son tampon porte la génération courante, ce qui
+ * évite de réinitialiser les tableaux en O(n) à chaque requête.
+ *
+ * Un sommet atteint entre une seule fois dans le tas ; il est traité définitivement quand il
+ * en ressort.
+ */
+final class DijkstraWorkspace {
+
+    private long[] distances = new long[0];
+    private int[] previous = new int[0];
+    private int[] stamp = new int[0];
+    private final IndexedMinHeap heap = new IndexedMinHeap(0);
+    private int generation = 0;
+    private int settled = 0;
+
+    // Prépare une nouvelle recherche sur un graphe de n sommets
+    void reset(int n) {
+        heap.clear();
+        if (stamp.length < n) {
+            distances = new long[n];
+            previous = new int[n];
+            stamp = new int[n];
+            heap.ensureCapacity(n);
+            generation = 0;
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        settled = 0;
+    }
+
+    void start(int origin) {
+        reach(origin, 0, -1);
+    }
+
+    boolean isReached(int v) {
+        return stamp[v] == generation;
+    }
+
+    boolean isSettled(int v) {
+        return isReached(v) && !heap.contains(v);
+    }
+
+    // Long.MAX_VALUE si le sommet n'est pas atteint
+    long distance(int v) {
+        return isReached(v) ? distances[v] : Long.MAX_VALUE;
+    }
+
+    int previous(int v) {
+        return previous[v];
+    }
+
+    int settledCount() {
+        return settled;
+    }
+
+    boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    // Distance du prochain sommet à traiter, Long.MAX_VALUE si la file est vide
+    long nextDistance() {
+        return heap.isEmpty() ? Long.MAX_VALUE : heap.minKey();
+    }
+
+    int settleNext() {
+        settled++;
+        return heap.poll();
+    }
+
+    void relax(int u, int v, int weight) {
+        long newDist = distances[u] + weight;
+        if (!isReached(v)) {
+            reach(v, newDist, u);
+        } else if (newDist < distances[v] && heap.contains(v)) { // Un sommet traité ne bouge plus
+            heap.insertOrDecrease(v, newDist);
+            distances[v] = newDist;
+            previous[v] = u;
+        }
+    }
+
+    private void reach(int v, long distance, int parent) {
+        stamp[v] = generation;
+        distances[v] = distance;
+        previous[v] = parent;
+        heap.insertOrDecrease(v, distance);
+    }
+
+    /**
+     * Réserve bornée d'espaces de travail. Au plus un espace par cœur est gardé entre deux
+     * recherches : ceux rendus au-delà sont abandonnés au ramasse-miettes. La mémoire retenue ne
+     * dépend donc plus du nombre de threads qui ont un jour lancé une recherche, seulement du
+     * nombre de cœurs et de la taille du plus grand graphe parcouru.
+     */
+    static final class Pool {
+
+        private final Queue<DijkstraWorkspace> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final int maxIdle;
+
+        Pool() {
+            this(Runtime.getRuntime().availableProcessors());
+        }
+
+        Pool(int maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        DijkstraWorkspace acquire() {
+            DijkstraWorkspace workspace = idle.poll();
+            if (workspace == null) return new DijkstraWorkspace();
+            idleCount.decrementAndGet();
+            return workspace;
+        }
+
+        void release(DijkstraWorkspace workspace) {
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                idle.offer(workspace);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+    }
+}
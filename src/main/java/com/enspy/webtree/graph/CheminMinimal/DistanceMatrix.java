@@ -0,0 +1,61 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * Distances entre tous les couples de sommets d'un graphe, à plat ligne par ligne dans un seul
+ * int[] (4 octets par couple). Ligne i, colonne j : distance du sommet d'indice i au sommet
+ * d'indice j du graphe. Immuable, donc partageable entre requêtes.
+ */
+public final class DistanceMatrix {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final CompactGraph graph;
+    private final int size;
+    private final int[] distances;
+    private final String method;
+    private final boolean negativeCycle;
+
+    DistanceMatrix(CompactGraph graph, int[] distances, String method, boolean negativeCycle) {
+        this.graph = graph;
+        this.size = graph.vertexCount();
+        this.distances = distances;
+        this.method = method;
+        this.negativeCycle = negativeCycle;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // UNREACHABLE si j n'est pas accessible depuis i
+    public int distance(int i, int j) {
+        return distances[i * size + j];
+    }
+
+    public boolean isReachable(int i, int j) {
+        return distance(i, j) != UNREACHABLE;
+    }
+
+    // Copie de la ligne i
+    public int[] row(int i) {
+        return Arrays.copyOfRange(distances, i * size, (i + 1) * size);
+    }
+
+    // "dijkstra", "floyd-warshall" ou "johnson"
+    public String getMethod() {
+        return method;
+    }
+
+    // Circuit de poids négatif : les distances n'ont alors pas de sens
+    public boolean hasNegativeCycle() {
+        return negativeCycle;
+    }
+}
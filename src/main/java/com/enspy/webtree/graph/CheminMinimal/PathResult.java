@@ -0,0 +1,41 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import java.util.List;
+import java.util.UUID;
+
+// Chemin trouvé par un solveur, avec le nombre de sommets définitivement traités pour l'obtenir
+public final class PathResult {
+
+    private final List<UUID> path;
+    private final int settledNodes;
+    private final List<UUID> negativeCycle;
+
+    public PathResult(List<UUID> path, int settledNodes) {
+        this(path, settledNodes, List.of());
+    }
+
+    public PathResult(List<UUID> path, int settledNodes, List<UUID> negativeCycle) {
+        this.path = path;
+        this.settledNodes = settledNodes;
+        this.negativeCycle = negativeCycle;
+    }
+
+    // Liste vide si la cible n'est pas accessible
+    public List<UUID> getPath() {
+        return path;
+    }
+
+    // Pour Bellman-Ford : nombre de sommets dépilés, un même sommet pouvant l'être plusieurs fois
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+
+    // Circuit de poids négatif rencontré, dans le sens des arcs ; vide s'il n'y en a pas
+    public List<UUID> getNegativeCycle() {
+        return negativeCycle;
+    }
+
+    public boolean hasNegativeCycle() {
+        return !negativeCycle.isEmpty();
+    }
+}
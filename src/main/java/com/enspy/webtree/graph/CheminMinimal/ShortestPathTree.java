@@ -0,0 +1,81 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Arbre des plus courts chemins depuis une source : distance et prédécesseur de chaque sommet
+ * du graphe. Une fois calculé, le chemin vers n'importe quelle cible s'obtient en remontant
+ * les prédécesseurs, en O(longueur du chemin). Immuable, donc partageable entre requêtes.
+ */
+public final class ShortestPathTree {
+
+    private final CompactGraph graph;
+    private final int source;
+    private final long[] distances;   // Long.MAX_VALUE pour un sommet non atteint
+    private final int[] predecessors; // -1 pour la source et les sommets non atteints
+    private final int settledNodes;
+    private final List<UUID> negativeCycle;
+
+    ShortestPathTree(CompactGraph graph, int source, long[] distances, int[] predecessors, int settledNodes, List<UUID> negativeCycle) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.settledNodes = settledNodes;
+        this.negativeCycle = negativeCycle;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // Indice de la source, -1 si elle est absente du graphe
+    public int getSource() {
+        return source;
+    }
+
+    public boolean isReached(int vertex) {
+        return distances[vertex] != Long.MAX_VALUE;
+    }
+
+    public long distance(int vertex) {
+        return distances[vertex];
+    }
+
+    public int predecessor(int vertex) {
+        return predecessors[vertex];
+    }
+
+    // Sommets traités pour construire l'arbre
+    public int getSettledNodes() {
+        return settledNodes;
+    }
+
+    // Circuit négatif accessible depuis la source (Bellman-Ford) : les distances n'ont alors pas de sens
+    public List<UUID> getNegativeCycle() {
+        return negativeCycle;
+    }
+
+    public boolean hasNegativeCycle() {
+        return !negativeCycle.isEmpty();
+    }
+
+    // Liste vide si la cible n'est pas accessible
+    public List<UUID> pathTo(UUID target) {
+        int t = graph.indexOf(target);
+        if (source < 0 || t < 0 || hasNegativeCycle() || !isReached(t)) return List.of();
+        LinkedList<UUID> path = new LinkedList<>();
+        for (int step = t; step >= 0; step = predecessors[step]) {
+            path.addFirst(graph.idOf(step));
+        }
+        return path;
+    }
+
+    public PathResult toPathResult(UUID target) {
+        return new PathResult(pathTo(target), settledNodes, negativeCycle);
+    }
+}
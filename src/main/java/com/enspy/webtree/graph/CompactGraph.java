@@ -0,0 +1,233 @@
+package com.enspy.webtree.graph;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Graphe orienté pondéré au format CSR (compressed sparse row).
+ *
+ * Chaque membre est identifié par un indice dense 0..n-1 ; les arcs sortants du sommet u
+ * occupent les positions [offsets[u], offsets[u + 1]) des tableaux targets et weights.
+ * Les algorithmes de graph.parcourt, graph.CheminMinimal et graph.arbreCouvrant travaillent
+ * sur ces indices et ne reviennent aux UUID que pour construire leur réponse.
+ *
+ * Les tableaux exposés ne doivent pas être modifiés : une instance est immuable.
+ */
+public final class CompactGraph {
+
+    private final UuidIndex index;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final GraphStats stats;
+    private volatile CompactGraph reverse; // Graphe transposé, calculé à la demande
+
+    CompactGraph(UuidIndex index, int[] offsets, int[] targets, int[] weights) {
+        this(index, offsets, targets, weights, GraphStats.of(offsets.length - 1, weights));
+    }
+
+    private CompactGraph(UuidIndex index, int[] offsets, int[] targets, int[] weights, GraphStats stats) {
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.stats = stats;
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedEdges) {
+        return new Builder(expectedEdges);
+    }
+
+    UuidIndex index() {
+        return index;
+    }
+
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    // Indice du membre, ou -1 s'il n'apparaît dans aucune relation
+    public int indexOf(UUID id) {
+        return index.get(id);
+    }
+
+    public UUID idOf(int vertex) {
+        return index.idOf(vertex);
+    }
+
+    public int outDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public int[] weights() {
+        return weights;
+    }
+
+    // Taille, densité et plage des poids, calculées à la construction
+    public GraphStats stats() {
+        return stats;
+    }
+
+    // Sommet source de chaque arc, aligné sur targets() ; nouveau tableau à chaque appel
+    public int[] edgeSources() {
+        int[] sources = new int[targets.length];
+        for (int u = 0; u < vertexCount(); u++) {
+            Arrays.fill(sources, offsets[u], offsets[u + 1], u);
+        }
+        return sources;
+    }
+
+    /**
+     * Graphe transposé (arcs entrants), qui partage le dictionnaire des sommets : un même
+     * indice désigne le même membre dans les deux graphes. Calculé une fois puis conservé.
+     */
+    public CompactGraph reverse() {
+        CompactGraph r = reverse;
+        if (r == null) {
+            int n = vertexCount();
+            int m = edgeCount();
+            int[] revOffsets = new int[n + 1];
+            for (int e = 0; e < m; e++) revOffsets[targets[e] + 1]++;
+            for (int v = 0; v < n; v++) revOffsets[v + 1] += revOffsets[v];
+
+            int[] cursor = Arrays.copyOf(revOffsets, n);
+            int[] revTargets = new int[m];
+            int[] revWeights = new int[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int slot = cursor[targets[e]]++;
+                    revTargets[slot] = u;
+                    revWeights[slot] = weights[e];
+                }
+            }
+            r = new CompactGraph(index, revOffsets, revTargets, revWeights, stats);
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    /**
+     * Copie du graphe augmentée d'un arc (copy-on-write). Les indices existants sont conservés
+     * et un membre inconnu reçoit l'indice suivant ; l'arc est placé après les voisins déjà
+     * connus de la source. Coût O(n + m), l'instance courante reste inchangée.
+     *
+     * Si le transposé de l'instance courante a déjà été calculé, la copie reçoit le sien par la
+     * même insertion de l'arc inverse, rangé comme l'aurait fait {@link #reverse()} : une suite
+     * de versions ne refait donc jamais la transposition complète.
+     */
+    public CompactGraph withEdge(UUID source, UUID target, int weight) {
+        UuidIndex next = index.copy();
+        int u = next.getOrAdd(source);
+        int v = next.getOrAdd(target);
+        GraphStats nextStats = stats.withEdge(next.size(), weight);
+        CompactGraph graph = withArc(next, u, v, weight, u < vertexCount() ? outDegree(u) : 0, nextStats);
+
+        CompactGraph r = reverse;
+        if (r != null) {
+            // Arcs entrants de v triés par source : le nouveau vient après ceux des sources <= u
+            int position = 0;
+            if (v < vertexCount()) {
+                while (position < r.outDegree(v) && r.targets[r.offsets[v] + position] <= u) position++;
+            }
+            CompactGraph transposed = r.withArc(next, v, u, weight, position, nextStats);
+            transposed.reverse = graph;
+            graph.reverse = transposed;
+        }
+        return graph;
+    }
+
+    // Copie avec l'arc from -> to inséré en position-ième voisin de from, sur le dictionnaire next
+    private CompactGraph withArc(UuidIndex next, int from, int to, int weight, int position, GraphStats nextStats) {
+        int oldN = vertexCount();
+        int n = next.size();
+        int m = targets.length;
+
+        int[] newOffsets = new int[n + 1];
+        for (int x = 0; x <= n; x++) {
+            int base = x <= oldN ? offsets[x] : m;
+            newOffsets[x] = x > from ? base + 1 : base;
+        }
+        int insertAt = newOffsets[from] + position;
+
+        int[] newTargets = new int[m + 1];
+        int[] newWeights = new int[m + 1];
+        System.arraycopy(targets, 0, newTargets, 0, insertAt);
+        System.arraycopy(weights, 0, newWeights, 0, insertAt);
+        newTargets[insertAt] = to;
+        newWeights[insertAt] = weight;
+        System.arraycopy(targets, insertAt, newTargets, insertAt + 1, m - insertAt);
+        System.arraycopy(weights, insertAt, newWeights, insertAt + 1, m - insertAt);
+        return new CompactGraph(next, newOffsets, newTargets, newWeights, nextStats);
+    }
+
+    /**
+     * Accumule les relations puis les range en CSR. L'ordre des voisins de chaque sommet est
+     * l'ordre d'ajout, et les indices sont attribués dans l'ordre de première apparition.
+     */
+    public static final class Builder {
+        private final UuidIndex index;
+        private int[] sources;
+        private int[] targets;
+        private int[] weights;
+        private int size;
+
+        private Builder(int expectedEdges) {
+            int capacity = Math.max(16, expectedEdges);
+            this.index = new UuidIndex(capacity);
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+            this.weights = new int[capacity];
+        }
+
+        public Builder addEdge(UUID source, UUID target, int weight) {
+            int u = index.getOrAdd(source);
+            int v = index.getOrAdd(target);
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = weight;
+            size++;
+            return this;
+        }
+
+        public CompactGraph build() {
+            int n = index.size();
+            int[] offsets = new int[n + 1];
+            for (int e = 0; e < size; e++) offsets[sources[e] + 1]++;
+            for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+
+            // Tri par comptage stable sur le sommet source
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] csrTargets = new int[size];
+            int[] csrWeights = new int[size];
+            for (int e = 0; e < size; e++) {
+                int slot = cursor[sources[e]]++;
+                csrTargets[slot] = targets[e];
+                csrWeights[slot] = weights[e];
+            }
+            return new CompactGraph(index.copy(), offsets, csrTargets, csrWeights);
+        }
+    }
+}
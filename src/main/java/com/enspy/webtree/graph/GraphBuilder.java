@@ -1,41 +1,137 @@
 package com.enspy.webtree.graph;
 
-import com.enspy.webtree.models.Relations;
+import com.enspy.webtree.repositories.RelationEdge;
 import com.enspy.webtree.repositories.RelationRepository;
+import com.enspy.webtree.repositories.RelationSequence;
+import com.enspy.webtree.repositories.RelationSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.*;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Component
 public class GraphBuilder {
 
+    private static final Logger log = LoggerFactory.getLogger(GraphBuilder.class);
+
     @Autowired
     private RelationRepository relationsRepository;
 
-    public Map<UUID, List<Neighbor>> buildGraph() {
-        List<Relations> relations = relationsRepository.findAll();
-        Map<UUID, List<Neighbor>> graph = new HashMap<>();
+    @Autowired
+    private RelationSequenceRepository relationSequenceRepository;
+
+    @Value("${spring.datasource.url:jdbc:sqlite:database.db}")
+    private String datasourceUrl;
+
+    // Fichier du snapshot binaire ; par défaut à côté de la base (database.db -> database.graph)
+    @Value("${webtree.graph.snapshot-file:}")
+    private String snapshotFile;
+
+    // Le flux garde le curseur ouvert : la lecture doit se faire dans une transaction
+    @Transactional(readOnly = true)
+    public CompactGraph buildGraph() {
+        CompactGraph.Builder graph = CompactGraph.builder((int) relationsRepository.count());
+
+        try (Stream<RelationEdge> edges = relationsRepository.streamEdges()) {
+            edges.forEach(edge -> graph.addEdge(edge.getSourceId(), edge.getTargetId(), edge.getPoid()));
+            // graph.addEdge(targetId, sourceId, poid); // Si bidirectionnel
+        }
 
-        for (Relations relation : relations) {
-            UUID sourceId = relation.getSources().getId();
-            UUID targetId = relation.getTarget().getId();
-            int poid = relation.getPoid();
+        return graph.build();
+    }
 
-            graph.computeIfAbsent(sourceId, k -> new ArrayList<>()).add(new Neighbor(targetId, poid));
-            // graph.computeIfAbsent(targetId, k -> new ArrayList<>()).add(new Neighbor(sourceId, poid)); // Si bidirectionnel
+    /**
+     * Graphe complet lu depuis le snapshot binaire s'il correspond encore à la table relations,
+     * sinon reconstruit depuis la base puis réécrit sur disque. La séquence retournée est celle
+     * de la table au moment de la lecture, dans la même transaction.
+     */
+    @Transactional(readOnly = true)
+    public LoadedGraph loadGraph() {
+        RelationSequence sequence = relationSequenceRepository.current();
+        Path path = snapshotPath();
+        try {
+            CompactGraph graph = GraphSnapshotFile.read(path, sequence);
+            if (graph != null) return new LoadedGraph(graph, sequence);
+        } catch (Exception e) {
+            log.warn("Snapshot du graphe illisible, reconstruction depuis la base : {}", path, e);
         }
+        return rebuildGraph();
+    }
 
-        return graph;
+    // Relit toutes les relations sans consulter le snapshot, puis le réécrit
+    @Transactional(readOnly = true)
+    public LoadedGraph rebuildGraph() {
+        RelationSequence sequence = relationSequenceRepository.current();
+        CompactGraph graph = buildGraph();
+        writeSnapshot(graph, sequence);
+        return new LoadedGraph(graph, sequence);
     }
 
-    public static class Neighbor {
-        public UUID id;
-        public int weight;
+    // Enregistre le graphe seulement si la table relations n'a pas changé depuis la séquence attendue
+    @Transactional(readOnly = true)
+    public void saveSnapshot(CompactGraph graph, RelationSequence expected) {
+        RelationSequence sequence = relationSequenceRepository.current();
+        if (!sequence.equals(expected)) {
+            log.info("Graphe en mémoire différent de la base, snapshot non enregistré");
+            return;
+        }
+        writeSnapshot(graph, sequence);
+    }
+
+    // Sous-graphe induit par les membres d'une famille, lu avec une seule requête de jointure
+    @Transactional(readOnly = true)
+    public CompactGraph buildFamilyGraph(UUID familyId) {
+        CompactGraph.Builder graph = CompactGraph.builder();
+
+        try (Stream<RelationEdge> edges = relationsRepository.streamFamilyEdges(familyId)) {
+            edges.forEach(edge -> graph.addEdge(edge.getSourceId(), edge.getTargetId(), edge.getPoid()));
+        }
+
+        return graph.build();
+    }
+
+    private void writeSnapshot(CompactGraph graph, RelationSequence sequence) {
+        Path path = snapshotPath();
+        try {
+            GraphSnapshotFile.write(path, graph, sequence);
+        } catch (Exception e) {
+            log.warn("Impossible d'écrire le snapshot du graphe : {}", path, e);
+        }
+    }
+
+    private Path snapshotPath() {
+        if (snapshotFile != null && !snapshotFile.isBlank()) return Path.of(snapshotFile);
+        // Retirer le préfixe "jdbc:sqlite:" puis remplacer l'extension
+        String database = datasourceUrl.replaceFirst("^jdbc:sqlite:", "");
+        int dot = database.lastIndexOf('.');
+        int slash = Math.max(database.lastIndexOf('/'), database.lastIndexOf('\\'));
+        String base = dot > slash ? database.substring(0, dot) : database;
+        return Path.of(base + ".graph");
+    }
+
+    // Graphe complet et séquence de la table relations à laquelle il correspond
+    public static final class LoadedGraph {
+
+        private final CompactGraph graph;
+        private final RelationSequence sequence;
+
+        LoadedGraph(CompactGraph graph, RelationSequence sequence) {
+            this.graph = graph;
+            this.sequence = sequence;
+        }
+
+        public CompactGraph getGraph() {
+            return graph;
+        }
 
-        public Neighbor(UUID id, int weight) {
-            this.id = id;
-            this.weight = weight;
+        public RelationSequence getSequence() {
+            return sequence;
         }
     }
 }
@@ -0,0 +1,26 @@
+package com.enspy.webtree.graph;
+
+/**
+ * Version immuable du graphe des relations. La version augmente à chaque relation ajoutée :
+ * deux snapshots de même version décrivent exactement le même graphe. Les sous-graphes de
+ * famille ont leur propre numérotation, le nombre d'écritures vues à leur lecture : la règle
+ * vaut alors pour une même famille.
+ */
+public final class GraphSnapshot {
+
+    private final long version;
+    private final CompactGraph graph;
+
+    public GraphSnapshot(long version, CompactGraph graph) {
+        this.version = version;
+        this.graph = graph;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+}
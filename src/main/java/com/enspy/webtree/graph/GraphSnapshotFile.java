@@ -0,0 +1,122 @@
+package com.enspy.webtree.graph;
+
+import com.enspy.webtree.repositories.RelationSequence;
+import com.enspy.webtree.repositories.RelationSequenceRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier binaire contenant un {@link CompactGraph}, relu par projection mémoire (NIO).
+ *
+ * Format (big-endian) :
+ * <pre>
+ * int  MAGIC, int FORMAT_VERSION
+ * long token, long sequence         -- empreinte de la table relations au moment de l'écriture
+ * int  n, int m
+ * n x (long msb, long lsb)           -- UUID de chaque sommet, par indice
+ * (n + 1) x int offsets, m x int targets, m x int weights
+ * </pre>
+ * Un fichier dont le format ou l'empreinte ne correspond pas est ignoré, de même qu'un fichier
+ * incohérent (offsets décroissants ou hors bornes, cible hors des sommets, UUID en double).
+ *
+ * La lecture copie chaque section une seule fois dans les tableaux que garde le graphe : aucun
+ * tampon intermédiaire n'est alloué sur le tas.
+ *
+ * @see RelationSequenceRepository
+ */
+public final class GraphSnapshotFile {
+
+    private static final int MAGIC = 0x57544753; // "WTGS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+
+    private GraphSnapshotFile() {
+    }
+
+    public static void write(Path path, CompactGraph graph, RelationSequence sequence) throws IOException {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        long size = HEADER_SIZE + 16L * n + 4L * (n + 1) + 8L * m;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Graphe trop volumineux pour un seul fichier projeté : " + size + " octets");
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(FORMAT_VERSION)
+                        .putLong(sequence.getToken()).putLong(sequence.getSequence())
+                        .putInt(n).putInt(m);
+                UuidIndex index = graph.index();
+                for (int v = 0; v < n; v++) {
+                    buffer.putLong(index.mostSignificantBits(v)).putLong(index.leastSignificantBits(v));
+                }
+                putInts(buffer, graph.offsets());
+                putInts(buffer, graph.targets());
+                putInts(buffer, graph.weights());
+                buffer.force();
+            }
+            // Remplacement atomique : un lecteur ne voit jamais un fichier à moitié écrit
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Retourne le graphe du fichier, ou null s'il est absent, d'un autre format ou périmé
+    public static CompactGraph read(Path path, RelationSequence sequence) throws IOException {
+        if (!Files.isRegularFile(path)) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return null;
+            if (buffer.getLong() != sequence.getToken() || buffer.getLong() != sequence.getSequence()) return null;
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            if (n < 0 || m < 0 || size != HEADER_SIZE + 16L * n + 4L * (n + 1) + 8L * m) return null;
+
+            long[] msb = new long[n];
+            long[] lsb = new long[n];
+            LongBuffer ids = buffer.asLongBuffer();
+            for (int v = 0; v < n; v++) {
+                msb[v] = ids.get();
+                lsb[v] = ids.get();
+            }
+            buffer.position(buffer.position() + 16 * n);
+
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            ints.get(offsets).get(targets).get(weights);
+            if (offsets[0] != 0 || offsets[n] != m) return null;
+            for (int v = 0; v < n; v++) {
+                if (offsets[v] > offsets[v + 1]) return null;
+            }
+            for (int target : targets) {
+                if (target < 0 || target >= n) return null;
+            }
+
+            return new CompactGraph(UuidIndex.of(msb, lsb), offsets, targets, weights);
+        }
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+}
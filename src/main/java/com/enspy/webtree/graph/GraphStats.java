@@ -0,0 +1,67 @@
+package com.enspy.webtree.graph;
+
+/**
+ * Statistiques d'un graphe utiles au choix d'un algorithme : taille, densité et plage des
+ * poids. Calculées avec le graphe (un passage sur les poids à la construction, O(1) par arc
+ * ajouté ensuite) et gardées avec lui.
+ */
+public final class GraphStats {
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int minWeight; // 0 sans arc
+    private final int maxWeight;
+
+    private GraphStats(int vertexCount, int edgeCount, int minWeight, int maxWeight) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    static GraphStats of(int vertexCount, int[] weights) {
+        if (weights.length == 0) return new GraphStats(vertexCount, 0, 0, 0);
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int weight : weights) {
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+        }
+        return new GraphStats(vertexCount, weights.length, min, max);
+    }
+
+    // Statistiques après ajout d'un arc de ce poids, le graphe ayant désormais vertexCount sommets
+    GraphStats withEdge(int vertexCount, int weight) {
+        if (edgeCount == 0) return new GraphStats(vertexCount, 1, weight, weight);
+        return new GraphStats(vertexCount, edgeCount + 1, Math.min(minWeight, weight), Math.max(maxWeight, weight));
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    public boolean hasNegativeWeights() {
+        return minWeight < 0;
+    }
+
+    // Tous les arcs ont le même poids (vrai sans arc)
+    public boolean hasUniformWeights() {
+        return minWeight == maxWeight;
+    }
+
+    // Part des couples (u, v), u != v, reliés par un arc
+    public double getDensity() {
+        return vertexCount < 2 ? 0 : edgeCount / ((double) vertexCount * (vertexCount - 1));
+    }
+}
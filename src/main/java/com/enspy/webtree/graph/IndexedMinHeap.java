@@ -0,0 +1,133 @@
+package com.enspy.webtree.graph;
+
+import java.util.Arrays;
+
+/**
+ * Tas d-aire (d = 4) de sommets 0..capacity-1 ordonnés par une clé long, avec diminution de
+ * clé en O(log n). Chaque sommet y figure au plus une fois : pas d'entrées périmées comme avec
+ * une PriorityQueue, et aucune allocation après construction.
+ *
+ * À clés égales, le plus petit indice sort en premier, ce qui rend l'ordre d'extraction
+ * déterministe. Une instance n'est pas thread-safe ; {@link #clear()} la rend réutilisable en
+ * O(taille courante).
+ */
+public final class IndexedMinHeap {
+
+    private static final int D = 4;
+
+    private int[] heap;     // position -> sommet
+    private int[] position; // sommet -> position, -1 si absent
+    private long[] keys;    // sommet -> clé
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    // Agrandit le tas pour accueillir les sommets 0..capacity-1 ; à appeler quand il est vide
+    public void ensureCapacity(int capacity) {
+        if (capacity <= position.length) return;
+        int old = position.length;
+        heap = Arrays.copyOf(heap, capacity);
+        position = Arrays.copyOf(position, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        Arrays.fill(position, old, capacity, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    public long key(int vertex) {
+        return keys[vertex];
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    public long minKey() {
+        return keys[heap[0]];
+    }
+
+    // Insère le sommet ou diminue sa clé ; retourne false si la clé actuelle est déjà meilleure
+    public boolean insertOrDecrease(int vertex, long key) {
+        int pos = position[vertex];
+        if (pos < 0) {
+            keys[vertex] = key;
+            heap[size] = vertex;
+            position[vertex] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (key >= keys[vertex]) return false;
+        keys[vertex] = key;
+        siftUp(pos);
+        return true;
+    }
+
+    public int poll() {
+        int min = heap[0];
+        position[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int vertex = heap[pos];
+        while (pos > 0) {
+            int parentPos = (pos - 1) / D;
+            int parent = heap[parentPos];
+            if (!less(vertex, parent)) break;
+            heap[pos] = parent;
+            position[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = vertex;
+        position[vertex] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int vertex = heap[pos];
+        while (true) {
+            int first = pos * D + 1;
+            if (first >= size) break;
+            int best = first;
+            int last = Math.min(first + D, size);
+            for (int child = first + 1; child < last; child++) {
+                if (less(heap[child], heap[best])) best = child;
+            }
+            if (!less(heap[best], vertex)) break;
+            heap[pos] = heap[best];
+            position[heap[pos]] = pos;
+            pos = best;
+        }
+        heap[pos] = vertex;
+        position[vertex] = pos;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+}
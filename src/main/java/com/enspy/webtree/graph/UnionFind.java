@@ -0,0 +1,91 @@
+package com.enspy.webtree.graph;
+
+import java.util.Arrays;
+
+/**
+ * Union-find sur les indices 0..size-1 : union par rang et compression de chemin itérative,
+ * donc aucune récursion quelle que soit la profondeur des arbres. Le nombre d'éléments peut
+ * augmenter avec {@link #grow(int)}, chaque nouvel élément formant sa propre classe.
+ *
+ * Une instance n'est pas thread-safe.
+ */
+public final class UnionFind {
+
+    private int[] parent;
+    private byte[] rank; // Majorant de la hauteur, au plus log2(size)
+    private int size;
+    private int components;
+
+    public UnionFind(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) parent[i] = i;
+        this.size = size;
+        this.components = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Nombre de classes distinctes
+    public int components() {
+        return components;
+    }
+
+    public void grow(int newSize) {
+        if (newSize <= size) return;
+        if (newSize > parent.length) {
+            int capacity = Math.max(newSize, parent.length * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+        for (int i = size; i < newSize; i++) {
+            parent[i] = i;
+            rank[i] = 0;
+        }
+        components += newSize - size;
+        size = newSize;
+    }
+
+    public int find(int x) {
+        int root = x;
+        while (parent[root] != root) root = parent[root];
+        while (parent[x] != root) { // Second passage : tout le chemin pointe vers la racine
+            int next = parent[x];
+            parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    // false si a et b étaient déjà dans la même classe
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return false;
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        components--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    public UnionFind copy() {
+        UnionFind copy = new UnionFind(0);
+        copy.parent = Arrays.copyOf(parent, size);
+        copy.rank = Arrays.copyOf(rank, size);
+        copy.size = size;
+        copy.components = components;
+        return copy;
+    }
+}
@@ -0,0 +1,132 @@
+package com.enspy.webtree.graph;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Dictionnaire UUID <-> indice entier dense (0..size-1) utilisé par {@link CompactGraph}.
+ * Les UUID sont rangés dans deux tableaux de long et la table de hachage est en adressage
+ * ouvert : aucun objet n'est alloué par sommet.
+ */
+final class UuidIndex {
+
+    private long[] msb;
+    private long[] lsb;
+    private int[] slots; // indice + 1, 0 = case vide
+    private int size;
+
+    UuidIndex(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        this.msb = new long[capacity];
+        this.lsb = new long[capacity];
+        this.slots = new int[tableSizeFor(capacity)];
+    }
+
+    private UuidIndex(long[] msb, long[] lsb, int[] slots, int size) {
+        this.msb = msb;
+        this.lsb = lsb;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    // Reconstruit le dictionnaire à partir des UUID rangés par indice ; les tableaux sont repris tels quels
+    static UuidIndex of(long[] msb, long[] lsb) {
+        int n = msb.length;
+        if (n == 0) return new UuidIndex(4);
+        int[] slots = new int[tableSizeFor(n)];
+        int mask = slots.length - 1;
+        for (int i = 0; i < n; i++) {
+            int slot = hash(msb[i], lsb[i]) & mask;
+            while (slots[slot] != 0) {
+                int candidate = slots[slot] - 1;
+                if (msb[candidate] == msb[i] && lsb[candidate] == lsb[i]) {
+                    throw new IllegalArgumentException("UUID en double à l'indice " + i);
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        return new UuidIndex(msb, lsb, slots, n);
+    }
+
+    int size() {
+        return size;
+    }
+
+    UUID idOf(int index) {
+        return new UUID(msb[index], lsb[index]);
+    }
+
+    long mostSignificantBits(int index) {
+        return msb[index];
+    }
+
+    long leastSignificantBits(int index) {
+        return lsb[index];
+    }
+
+    // Retourne l'indice du UUID ou -1 s'il est inconnu
+    int get(UUID id) {
+        if (id == null) return -1;
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        int slot = hash(hi, lo) & mask;
+        while (slots[slot] != 0) {
+            int candidate = slots[slot] - 1;
+            if (msb[candidate] == hi && lsb[candidate] == lo) return candidate;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Retourne l'indice du UUID en l'ajoutant à la fin s'il est inconnu
+    int getOrAdd(UUID id) {
+        return getOrAdd(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    int getOrAdd(long hi, long lo) {
+        int mask = slots.length - 1;
+        int slot = hash(hi, lo) & mask;
+        while (slots[slot] != 0) {
+            int candidate = slots[slot] - 1;
+            if (msb[candidate] == hi && lsb[candidate] == lo) return candidate;
+            slot = (slot + 1) & mask;
+        }
+        if (size == msb.length) {
+            msb = Arrays.copyOf(msb, Math.max(4, size * 2));
+            lsb = Arrays.copyOf(lsb, Math.max(4, size * 2));
+        }
+        msb[size] = hi;
+        lsb[size] = lo;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) rehash(slots.length * 2);
+        return size - 1;
+    }
+
+    UuidIndex copy() {
+        return new UuidIndex(msb.clone(), lsb.clone(), slots.clone(), size);
+    }
+
+    private void rehash(int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(msb[i], lsb[i]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = i + 1;
+        }
+        slots = table;
+    }
+
+    private static int hash(long hi, long lo) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        return Math.max(8, n);
+    }
+}
@@ -0,0 +1,146 @@
+package com.enspy.webtree.graph.arbreCouvrant;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import com.enspy.webtree.graph.UnionFind;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Forêt couvrante minimum de Borůvka, parallèle, arcs traités comme non orientés.
+ *
+ * À chaque tour, les arcs sont répartis en tranches sur un ForkJoinPool : chaque arc reliant
+ * deux composantes différentes propose sa clé aux deux composantes, qui gardent la plus petite
+ * par CAS. Les arcs retenus sont ensuite fusionnés (union-find, séquentiel sur le nombre de
+ * composantes) et les sommets relabellisés en parallèle. Le nombre de composantes au moins
+ * divisé par deux à chaque tour borne le nombre de tours à log2(|V|).
+ *
+ * La clé d'un arc est (poids, position CSR) : c'est l'ordre total de {@link Kruskal}, l'arbre
+ * est donc unique et identique au sien, arcs compris, et retourné dans le même ordre.
+ */
+@Component
+public class Boruvka {
+
+    private static final int GRAIN = 4096;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+
+    public Boruvka() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Boruvka(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Set<Edge> findMST(CompactGraph graph) {
+        int[] sources = graph.edgeSources();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+
+        long[] selected = mstKeys(graph.vertexCount(), sources, targets, weights);
+        Arrays.sort(selected); // Ordre de sélection de Kruskal
+
+        Set<Edge> mst = new LinkedHashSet<>();
+        for (long key : selected) {
+            int e = (int) key;
+            mst.add(new Edge(graph.idOf(sources[e]), graph.idOf(targets[e]), weights[e]));
+        }
+        return mst;
+    }
+
+    private long[] mstKeys(int n, int[] sources, int[] targets, int[] weights) {
+        int m = targets.length;
+        int[] component = new int[n]; // Représentant de la composante de chaque sommet
+        for (int v = 0; v < n; v++) component[v] = v;
+        AtomicLongArray best = new AtomicLongArray(n);
+        UnionFind uf = new UnionFind(n);
+        long[] selected = new long[Math.max(0, n - 1)];
+        int count = 0;
+
+        while (true) {
+            for (int v = 0; v < n; v++) best.set(v, NONE);
+
+            // Plus petit arc sortant de chaque composante
+            pool.invoke(new RangeTask(0, m, (lo, hi) -> {
+                for (int e = lo; e < hi; e++) {
+                    int cu = component[sources[e]];
+                    int cv = component[targets[e]];
+                    if (cu == cv) continue;
+                    long key = key(weights[e], e);
+                    offer(best, cu, key);
+                    offer(best, cv, key);
+                }
+            }));
+
+            // Fusion : un arc choisi par ses deux extrémités n'est ajouté qu'une fois
+            boolean merged = false;
+            for (int c = 0; c < n; c++) {
+                long key = best.get(c);
+                if (key == NONE) continue;
+                int e = (int) key;
+                if (uf.union(sources[e], targets[e])) {
+                    selected[count++] = key;
+                    merged = true;
+                }
+            }
+            if (!merged) break;
+
+            int[] root = new int[n];
+            for (int v = 0; v < n; v++) {
+                if (component[v] == v) root[v] = uf.find(v);
+            }
+            pool.invoke(new RangeTask(0, n, (lo, hi) -> {
+                for (int v = lo; v < hi; v++) component[v] = root[component[v]];
+            }));
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    // Clé (poids, position) comparable comme un long signé
+    private static long key(int weight, int edge) {
+        return ((long) weight << 32) | (edge & 0xFFFFFFFFL);
+    }
+
+    private static void offer(AtomicLongArray best, int component, long key) {
+        long current = best.get(component);
+        while (key < current && !best.compareAndSet(component, current, key)) {
+            current = best.get(component);
+        }
+    }
+
+    // Traitement d'une tranche [lo, hi)
+    private interface Range {
+        void run(int lo, int hi);
+    }
+
+    // Découpe récursive de [lo, hi) en tranches de GRAIN éléments
+    private static final class RangeTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final Range range;
+
+        RangeTask(int lo, int hi, Range range) {
+            this.lo = lo;
+            this.hi = hi;
+            this.range = range;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= GRAIN) {
+                range.run(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeTask(lo, mid, range), new RangeTask(mid, hi, range));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.enspy.webtree.graph.arbreCouvrant;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forêt couvrante minimum maintenue au fil des ajouts de relations (arcs non orientés).
+ *
+ * Propriété du cycle : quand l'arc (u, v, w) arrive, soit u et v sont dans deux arbres
+ * différents et l'arc les relie, soit il ferme un cycle avec le chemin u..v de la forêt ; on
+ * retire alors l'arc le plus lourd de ce cycle, qui est soit le nouveau, soit un arc du chemin.
+ * Chaque ajout coûte un parcours de l'arbre de u, O(V) au pire, contre O(E log E) pour refaire
+ * Kruskal. Le poids total reste celui de Kruskal ; à poids égaux l'arc déjà présent est gardé,
+ * les arcs retenus peuvent donc différer d'un recalcul.
+ *
+ * Les sommets sont les indices du graphe compact, stables tant que le graphe ne fait que
+ * grandir par {@link CompactGraph#withEdge}. Une instance n'est pas thread-safe.
+ */
+public final class IncrementalMST {
+
+    private int[] from = new int[16];   // Arc de la forêt rangé dans la case s ; -1 si la case est libre
+    private int[] to = new int[16];
+    private int[] weight = new int[16];
+    private int slots = 0;
+    private int[] free = new int[16];
+    private int freeCount = 0;
+
+    private int[][] incident = new int[0][]; // Cases des arcs touchant chaque sommet
+    private int[] degree = new int[0];
+
+    // Parcours de la forêt : tampon de génération pour éviter de remettre à zéro
+    private int[] seen = new int[0];
+    private int[] viaSlot = new int[0];
+    private int[] queue = new int[0];
+    private int generation = 0;
+
+    // Forêt de Kruskal du graphe, point de départ de la maintenance
+    public static IncrementalMST of(CompactGraph graph, int[] mstEdges) {
+        IncrementalMST mst = new IncrementalMST();
+        mst.ensureVertices(graph.vertexCount());
+        int[] sources = graph.edgeSources();
+        for (int e : mstEdges) mst.link(sources[e], graph.targets()[e], graph.weights()[e]);
+        return mst;
+    }
+
+    public int edgeCount() {
+        return slots - freeCount;
+    }
+
+    public void ensureVertices(int n) {
+        int old = degree.length;
+        if (n <= old) return;
+        incident = Arrays.copyOf(incident, n);
+        degree = Arrays.copyOf(degree, n);
+        for (int v = old; v < n; v++) incident[v] = new int[2];
+        seen = Arrays.copyOf(seen, n);
+        viaSlot = Arrays.copyOf(viaSlot, n);
+        queue = Arrays.copyOf(queue, n);
+    }
+
+    // Applique l'arrivée de l'arc u -> v ; retourne false si la forêt est inchangée
+    public boolean insert(int u, int v, int w) {
+        ensureVertices(Math.max(u, v) + 1);
+        if (u == v) return false;
+
+        int heaviest = heaviestOnPath(u, v);
+        if (heaviest == -2) { // Deux arbres distincts
+            link(u, v, w);
+            return true;
+        }
+        if (weight[heaviest] <= w) return false;
+        unlink(heaviest);
+        link(u, v, w);
+        return true;
+    }
+
+    // Arcs de la forêt en O(V), orientés comme les relations d'origine
+    public List<Edge> edges(CompactGraph graph) {
+        List<Edge> edges = new ArrayList<>(edgeCount());
+        for (int s = 0; s < slots; s++) {
+            if (from[s] >= 0) edges.add(new Edge(graph.idOf(from[s]), graph.idOf(to[s]), weight[s]));
+        }
+        return edges;
+    }
+
+    // Case de l'arc le plus lourd du chemin u..v dans la forêt, -2 si u et v ne sont pas reliés
+    private int heaviestOnPath(int u, int v) {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            generation = 1;
+        }
+        int head = 0, tail = 0;
+        seen[u] = generation;
+        viaSlot[u] = -1;
+        queue[tail++] = u;
+        while (head < tail && seen[v] != generation) {
+            int x = queue[head++];
+            for (int i = 0; i < degree[x]; i++) {
+                int s = incident[x][i];
+                int y = from[s] == x ? to[s] : from[s];
+                if (seen[y] == generation) continue;
+                seen[y] = generation;
+                viaSlot[y] = s;
+                queue[tail++] = y;
+            }
+        }
+        if (seen[v] != generation) return -2;
+
+        int heaviest = -1;
+        for (int x = v; x != u; ) {
+            int s = viaSlot[x];
+            if (heaviest < 0 || weight[s] > weight[heaviest]) heaviest = s;
+            x = from[s] == x ? to[s] : from[s];
+        }
+        return heaviest;
+    }
+
+    private void link(int u, int v, int w) {
+        int s;
+        if (freeCount > 0) {
+            s = free[--freeCount];
+        } else {
+            if (slots == from.length) {
+                int capacity = slots * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            s = slots++;
+        }
+        from[s] = u;
+        to[s] = v;
+        weight[s] = w;
+        attach(u, s);
+        attach(v, s);
+    }
+
+    private void unlink(int s) {
+        detach(from[s], s);
+        detach(to[s], s);
+        from[s] = -1;
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = s;
+    }
+
+    private void attach(int vertex, int s) {
+        if (degree[vertex] == incident[vertex].length) {
+            incident[vertex] = Arrays.copyOf(incident[vertex], degree[vertex] * 2);
+        }
+        incident[vertex][degree[vertex]++] = s;
+    }
+
+    private void detach(int vertex, int s) {
+        int[] list = incident[vertex];
+        for (int i = 0; i < degree[vertex]; i++) {
+            if (list[i] == s) {
+                list[i] = list[--degree[vertex]];
+                return;
+            }
+        }
+    }
+}
@@ -1,62 +1,83 @@
 package com.enspy.webtree.graph.arbreCouvrant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import com.enspy.webtree.graph.CompactGraph;
 import com.enspy.webtree.graph.Edge;
-import com.enspy.webtree.graph.GraphBuilder;
-   
-import java.util.Set;
-import java.util.UUID;
+import com.enspy.webtree.graph.UnionFind;
+import org.springframework.stereotype.Component;
 
+import java.util.Set;
 
+/**
+ * Arbre (forêt) couvrant minimum de Kruskal, les arcs étant traités comme non orientés.
+ *
+ * Un arc est désigné par sa position dans les tableaux CSR du graphe ; les positions sont
+ * triées par poids avec un tri par base stable, donc à poids égal l'ordre CSR est conservé.
+ * C'est la règle de départage que suivent aussi les autres moteurs de graph.arbreCouvrant.
+ */
+@Component
 public class Kruskal {
 
+    public Set<Edge> findMST(CompactGraph graph) {
+        int[] sources = graph.edgeSources();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
 
-    
-
-    private static class UnionFind {
-        private final Map<UUID, UUID> parent = new HashMap<>();
-
-        public UUID find(UUID node) {
-            if (!parent.containsKey(node)) parent.put(node, node);
-            if (!node.equals(parent.get(node))) {
-                parent.put(node, find(parent.get(node)));
-            }
-            return parent.get(node);
+        Set<Edge> mst = new LinkedHashSet<>();
+        for (int e : mstEdges(graph, sources)) {
+            mst.add(new Edge(graph.idOf(sources[e]), graph.idOf(targets[e]), weights[e]));
         }
+        return mst;
+    }
 
-        public boolean union(UUID u, UUID v) {
-            UUID rootU = find(u);
-            UUID rootV = find(v);
-            if (rootU.equals(rootV)) return false;
-            parent.put(rootU, rootV);
-            return true;
-        }
+    // Positions des arcs retenus, dans l'ordre où Kruskal les sélectionne
+    public int[] mstEdges(CompactGraph graph) {
+        return mstEdges(graph, graph.edgeSources());
     }
 
-    public Set<Edge> findMST(Map<UUID, List<GraphBuilder.Neighbor>> graph) {
-        List<Edge> allEdges = new ArrayList<>();
-        for (UUID from : graph.keySet()) {
-            for (GraphBuilder.Neighbor neighbor : graph.get(from)) {
-                allEdges.add(new Edge(from, neighbor.id, neighbor.weight));
-            }
+    private int[] mstEdges(CompactGraph graph, int[] sources) {
+        int n = graph.vertexCount();
+        int[] targets = graph.targets();
+        int[] order = sortByWeight(graph.weights());
+
+        UnionFind uf = new UnionFind(n);
+        int[] selected = new int[Math.max(0, n - 1)];
+        int count = 0;
+        for (int i = 0; i < order.length && count < selected.length; i++) {
+            int e = order[i];
+            if (uf.union(sources[e], targets[e])) selected[count++] = e;
         }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
 
-        Collections.sort(allEdges);
+    /**
+     * Positions 0..m-1 triées par poids croissant : tri par base (LSD) sur les 4 octets du poids,
+     * bit de signe inversé pour que les poids négatifs passent en premier. Chaque passe est
+     * stable ; une passe dont tous les arcs tombent dans le même seau est sautée.
+     */
+    static int[] sortByWeight(int[] weights) {
+        int m = weights.length;
+        int[] order = new int[m];
+        int[] buffer = new int[m];
+        for (int i = 0; i < m; i++) order[i] = i;
 
-        Set<Edge> mst = new HashSet<>();
-        UnionFind uf = new UnionFind();
+        int[] count = new int[257];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int weight : weights) count[(((weight ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1]++;
+            if (m == 0 || count[(((weights[0] ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1] == m) continue;
+            for (int b = 0; b < 256; b++) count[b + 1] += count[b];
 
-        for (Edge edge : allEdges) {
-            if (uf.union(edge.from, edge.to)) {
-                mst.add(edge);
+            for (int i = 0; i < m; i++) {
+                int e = order[i];
+                buffer[count[((weights[e] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = e;
             }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
         }
-
-        return mst;
+        return order;
     }
 }
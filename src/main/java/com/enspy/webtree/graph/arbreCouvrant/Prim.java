@@ -1,47 +1,211 @@
 package com.enspy.webtree.graph.arbreCouvrant;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
 
+import com.enspy.webtree.graph.CompactGraph;
 import com.enspy.webtree.graph.Edge;
-import com.enspy.webtree.graph.GraphBuilder;
+import com.enspy.webtree.graph.IndexedMinHeap;
+import com.enspy.webtree.graph.UnionFind;
+import org.springframework.stereotype.Component;
 
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+/**
+ * Prim « eager » : le tas contient au plus un candidat par sommet (le meilleur arc connu pour
+ * l'atteindre), mis à jour par diminution de clé. Sa taille est donc bornée par |V| et non |E|.
+ *
+ * {@link #findMST} suit les arcs sortants depuis le sommet de départ, comme auparavant.
+ * {@link #findForest} traite les arcs comme non orientés et couvre toutes les composantes
+ * connexes, chacune pouvant être calculée en parallèle sur le pool ForkJoin commun.
+ */
+@Component
 public class Prim {
-  
-    
-    
 
-    public Set<Edge> findMST(Map<UUID, List<GraphBuilder.Neighbor>> graph, UUID start) {
-        Set<UUID> visited = new HashSet<>();
-        PriorityQueue<Edge> minHeap = new PriorityQueue<>();
-        Set<Edge> mst = new HashSet<>();
+    // Nombre de sommets en dessous duquel un groupe de composantes est traité sans découpage
+    private static final int GRAIN = 4096;
+    private static final int NO_PARENT = Integer.MIN_VALUE; // ~NO_PARENT n'est pas un sommet
 
-        visited.add(start);
-        for (GraphBuilder.Neighbor neighbor : graph.get(start)) {
-            minHeap.add(new Edge(start, neighbor.id, neighbor.weight));
-        }
+    public Set<Edge> findMST(CompactGraph graph, UUID start) {
+        Set<Edge> mst = new LinkedHashSet<>();
+        int s = graph.indexOf(start);
+        if (s < 0) return mst; // Sommet sans aucune relation
 
-        while (!minHeap.isEmpty()) {
-            Edge edge = minHeap.poll();
-            if (visited.contains(edge.to)) continue;
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        boolean[] visited = new boolean[n];
+        int[] parent = new int[n];    // Sommet de l'arbre par lequel le candidat est atteint
+        int[] parentArc = new int[n]; // Position de cet arc dans le CSR
+        IndexedMinHeap heap = new IndexedMinHeap(n);
 
-            visited.add(edge.to);
-            mst.add(edge);
+        heap.insertOrDecrease(s, 0);
+        parent[s] = -1;
+        while (!heap.isEmpty()) {
+            int to = heap.poll();
+            visited[to] = true;
+            if (parent[to] >= 0) {
+                mst.add(new Edge(graph.idOf(parent[to]), graph.idOf(to), weights[parentArc[to]]));
+            }
 
-            for (GraphBuilder.Neighbor neighbor : graph.get(edge.to)) {
-                if (!visited.contains(neighbor.id)) {
-                    minHeap.add(new Edge(edge.to, neighbor.id, neighbor.weight));
+            for (int e = offsets[to]; e < offsets[to + 1]; e++) {
+                int v = targets[e];
+                if (!visited[v] && heap.insertOrDecrease(v, weights[e])) {
+                    parent[v] = to;
+                    parentArc[v] = e;
                 }
             }
         }
 
         return mst;
     }
-}
 
+    public Set<Edge> findForest(CompactGraph graph, boolean parallel) {
+        Components components = Components.of(graph);
+        graph.reverse(); // Calculé une fois avant de répartir les composantes
+        ForestTask task = new ForestTask(graph, components, 0, components.count(), parallel);
+        List<Edge> forest = parallel ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+        return new LinkedHashSet<>(forest);
+    }
+
+    // Composantes faiblement connexes, sommets regroupés par composante en ordre croissant
+    private static final class Components {
+        private final int[] start;   // Composante c : members[start[c] .. start[c + 1])
+        private final int[] members;
+        private final int[] local;   // Rang du sommet dans sa composante
+
+        private Components(int[] start, int[] members, int[] local) {
+            this.start = start;
+            this.members = members;
+            this.local = local;
+        }
+
+        static Components of(CompactGraph graph) {
+            int n = graph.vertexCount();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            UnionFind uf = new UnionFind(n);
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) uf.union(u, targets[e]);
+            }
+
+            // Numérotation des composantes dans l'ordre de leur plus petit sommet
+            int[] id = new int[n];
+            int[] rootId = new int[n];
+            Arrays.fill(rootId, -1);
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                int root = uf.find(v);
+                if (rootId[root] < 0) rootId[root] = count++;
+                id[v] = rootId[root];
+            }
+
+            int[] start = new int[count + 1];
+            for (int v = 0; v < n; v++) start[id[v] + 1]++;
+            for (int c = 0; c < count; c++) start[c + 1] += start[c];
+            int[] cursor = Arrays.copyOf(start, count);
+            int[] members = new int[n];
+            int[] local = new int[n];
+            for (int v = 0; v < n; v++) {
+                int slot = cursor[id[v]]++;
+                members[slot] = v;
+                local[v] = slot - start[id[v]];
+            }
+            return new Components(start, members, local);
+        }
+
+        int count() {
+            return start.length - 1;
+        }
+
+        int size(int c) {
+            return start[c + 1] - start[c];
+        }
+    }
+
+    // Calcule les arbres des composantes [from, to), en coupant en deux tant que le groupe est gros
+    private static final class ForestTask extends RecursiveTask<List<Edge>> {
+        private final CompactGraph graph;
+        private final Components components;
+        private final int from;
+        private final int to;
+        private final boolean parallel;
+
+        ForestTask(CompactGraph graph, Components components, int from, int to, boolean parallel) {
+            this.graph = graph;
+            this.components = components;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected List<Edge> compute() {
+            int vertices = components.start[to] - components.start[from];
+            if (parallel && to - from > 1 && vertices > GRAIN) {
+                int mid = (from + to) >>> 1;
+                ForestTask left = new ForestTask(graph, components, from, mid, true);
+                ForestTask right = new ForestTask(graph, components, mid, to, true);
+                left.fork();
+                List<Edge> edges = right.compute();
+                List<Edge> result = left.join();
+                result.addAll(edges); // Les composantes restent dans l'ordre
+                return result;
+            }
+
+            List<Edge> edges = new ArrayList<>(Math.max(0, vertices - (to - from)));
+            for (int c = from; c < to; c++) growTree(c, edges);
+            return edges;
+        }
+
+        // Prim sur une composante, arcs pris dans les deux sens ; tas et tableaux à la taille de la composante
+        private void growTree(int c, List<Edge> edges) {
+            int size = components.size(c);
+            if (size < 2) return;
+            int base = components.start[c];
+            int[] members = components.members;
+            CompactGraph reverse = graph.reverse();
+
+            boolean[] inTree = new boolean[size];
+            int[] parent = new int[size];       // Sommet global reliant le candidat à l'arbre, ~parent si l'arc est entrant
+            int[] parentWeight = new int[size];
+            IndexedMinHeap heap = new IndexedMinHeap(size);
+            heap.insertOrDecrease(0, 0);
+            parent[0] = NO_PARENT;
+
+            while (!heap.isEmpty()) {
+                int x = heap.poll();
+                inTree[x] = true;
+                int u = members[base + x];
+                if (parent[x] != NO_PARENT) {
+                    int p = parent[x];
+                    edges.add(p >= 0
+                            ? new Edge(graph.idOf(p), graph.idOf(u), parentWeight[x])
+                            : new Edge(graph.idOf(u), graph.idOf(~p), parentWeight[x]));
+                }
+                relax(graph, u, u, inTree, parent, parentWeight, heap);
+                relax(reverse, u, ~u, inTree, parent, parentWeight, heap);
+            }
+        }
+
+        private void relax(CompactGraph side, int u, int link, boolean[] inTree, int[] parent, int[] parentWeight, IndexedMinHeap heap) {
+            int[] offsets = side.offsets();
+            int[] targets = side.targets();
+            int[] weights = side.weights();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int y = components.local[targets[e]];
+                if (!inTree[y] && heap.insertOrDecrease(y, weights[e])) {
+                    parent[y] = link;
+                    parentWeight[y] = weights[e];
+                }
+            }
+        }
+    }
+}
@@ -2,57 +2,173 @@ package com.enspy.webtree.graph.parcourt;
 
 import java.util.*;
 
-import com.enspy.webtree.graph.GraphBuilder;
+import com.enspy.webtree.graph.CompactGraph;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Parcours en largeur sans état : chaque appel travaille sur ses propres tableaux et retourne
+ * un {@link Result} immuable, le composant peut donc servir plusieurs requêtes en parallèle.
+ *
+ * À partir de webtree.graph.parallel-bfs-threshold sommets, le parcours est confié à
+ * {@link ParallelBFS} ; en dessous, le moteur séquentiel reste plus rapide.
+ */
 @Component
 public class BFS {
 
-    private Map<UUID, Integer> d = new HashMap<>(); // Distance depuis le sommet source
-    private Map<UUID, UUID> p = new HashMap<>(); // Parent de chaque sommet
-    private Map<UUID, String> couleur = new HashMap<>(); // Couleur pour marquer l'état de chaque sommet (BLANC, GRIS, NOIR)
+    private final ParallelBFS parallelBFS = new ParallelBFS();
+    private final int parallelThreshold;
+
+    // Sans configuration, le parcours reste séquentiel
+    public BFS() {
+        this(Integer.MAX_VALUE);
+    }
+
+    @Autowired
+    public BFS(@Value("${webtree.graph.parallel-bfs-threshold:200000}") int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
 
     // Fonction principale pour démarrer le BFS à partir du sommet source
-    public void bfs(Map<UUID, List<GraphBuilder.Neighbor>> graph, UUID source) {
+    public Result bfs(CompactGraph graph, UUID source) {
+        if (graph.vertexCount() >= parallelThreshold) {
+            return parallelBFS.bfs(graph, source);
+        }
+        return sequentialBfs(graph, source);
+    }
+
+    public Result sequentialBfs(CompactGraph graph, UUID source) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+
         // Initialisation
-        for (UUID u : graph.keySet()) {
-            couleur.put(u, "BLANC");
-            d.put(u, Integer.MAX_VALUE); // Distance infinie par défaut
-            p.put(u, null); // Pas de parent
-        }
-
-        couleur.put(source, "GRIS"); // Le sommet source est en exploration
-        d.put(source, 0); // La distance du sommet source à lui-même est 0
-        p.put(source, null); // Le sommet source n'a pas de parent
-        Queue<UUID> queue = new LinkedList<>(); // Utilisation d'une file
-        queue.add(source); // On met le sommet source dans la file
-
-        // Exploration du graphe
-        while (!queue.isEmpty()) {
-            UUID u = queue.poll(); // Défilement du sommet de la file
-            for (GraphBuilder.Neighbor neighbor : graph.get(u)) {
-                UUID v = neighbor.id;
-                if (couleur.get(v).equals("BLANC")) { // Si le sommet v n'a pas encore été exploré
-                    couleur.put(v, "GRIS"); // Le sommet v est maintenant en exploration
-                    d.put(v, d.get(u) + 1); // La distance de v est la distance de u + 1
-                    p.put(v, u); // Le parent de v est u
-                    queue.add(v); // On ajoute v à la file pour l'explorer plus tard
+        int[] d = new int[n]; // Distance depuis le sommet source
+        int[] p = new int[n]; // Parent de chaque sommet
+        Arrays.fill(d, Integer.MAX_VALUE); // Distance infinie par défaut : sommet BLANC
+        Arrays.fill(p, -1); // Pas de parent
+
+        int s = graph.indexOf(source);
+        if (s >= 0) {
+            int[] queue = new int[n]; // Chaque sommet n'entre qu'une fois dans la file
+            int head = 0, tail = 0;
+            d[s] = 0; // La distance du sommet source à lui-même est 0
+            queue[tail++] = s;
+
+            // Exploration du graphe
+            while (head < tail) {
+                int u = queue[head++]; // Défilement du sommet de la file
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (d[v] == Integer.MAX_VALUE) { // Si le sommet v n'a pas encore été exploré
+                        d[v] = d[u] + 1; // La distance de v est la distance de u + 1
+                        p[v] = u; // Le parent de v est u
+                        queue[tail++] = v; // On ajoute v à la file pour l'explorer plus tard
+                    }
                 }
             }
-            couleur.put(u, "NOIR"); // Le sommet u est maintenant exploré
         }
+
+        return new Result(graph, s, d, p);
     }
 
-    // Méthodes pour récupérer les résultats
-    public Map<UUID, Integer> getDistances() {
-        return d;
+    // Appelé pour chaque sommet découvert, niveau par niveau ; retourner false arrête le parcours
+    public interface Visitor {
+        boolean discover(int vertex, int parent, int depth);
     }
 
-    public Map<UUID, UUID> getParents() {
-        return p;
+    /**
+     * Parcours sans résultat : chaque sommet est transmis au visiteur dès sa découverte, source
+     * comprise, sans garder de distances ni de parents. Seuls une file et un bit par sommet sont
+     * alloués. Les sommets au-delà de maxDepth (négatif : sans limite) ne sont pas découverts.
+     * Retourne le nombre de sommets transmis.
+     */
+    public int bfs(CompactGraph graph, UUID source, int maxDepth, Visitor visitor) {
+        int s = graph.indexOf(source);
+        if (s < 0) return 0;
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        long[] seen = new long[(n + 63) >>> 6];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        seen[s >>> 6] |= 1L << s;
+        queue[tail++] = s;
+        if (!visitor.discover(s, -1, 0)) return 1;
+
+        // head..levelEnd : sommets du niveau depth
+        for (int depth = 0; head < tail && (maxDepth < 0 || depth < maxDepth); depth++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int u = queue[head++];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if ((seen[v >>> 6] & (1L << v)) != 0) continue;
+                    seen[v >>> 6] |= 1L << v;
+                    queue[tail++] = v;
+                    if (!visitor.discover(v, u, depth + 1)) return tail;
+                }
+            }
+        }
+        return tail;
     }
 
-    public Map<UUID, String> getColors() {
-        return couleur;
+    // Résultat d'un parcours : distances et parents indexés par sommet du graphe parcouru
+    public static final class Result {
+        private final CompactGraph graph;
+        private final int source;
+        private final int[] distances;
+        private final int[] parents;
+
+        Result(CompactGraph graph, int source, int[] distances, int[] parents) {
+            this.graph = graph;
+            this.source = source;
+            this.distances = distances;
+            this.parents = parents;
+        }
+
+        public CompactGraph getGraph() {
+            return graph;
+        }
+
+        // Indice du sommet source, -1 s'il est absent du graphe
+        public int getSource() {
+            return source;
+        }
+
+        public boolean isReached(int vertex) {
+            return distances[vertex] != Integer.MAX_VALUE;
+        }
+
+        // Integer.MAX_VALUE si le sommet n'est pas atteint
+        public int distance(int vertex) {
+            return distances[vertex];
+        }
+
+        // -1 pour la source et les sommets non atteints
+        public int parent(int vertex) {
+            return parents[vertex];
+        }
+
+        // Méthodes pour récupérer les résultats par UUID
+        public Map<UUID, Integer> getDistances() {
+            Map<UUID, Integer> d = new HashMap<>();
+            for (int u = 0; u < distances.length; u++) d.put(graph.idOf(u), distances[u]);
+            return d;
+        }
+
+        public Map<UUID, UUID> getParents() {
+            Map<UUID, UUID> p = new HashMap<>();
+            for (int u = 0; u < parents.length; u++) p.put(graph.idOf(u), parents[u] < 0 ? null : graph.idOf(parents[u]));
+            return p;
+        }
+
+        // En fin de parcours tout sommet atteint est exploré (NOIR), les autres restent BLANC
+        public Map<UUID, String> getColors() {
+            Map<UUID, String> couleur = new HashMap<>();
+            for (int u = 0; u < distances.length; u++) couleur.put(graph.idOf(u), isReached(u) ? "NOIR" : "BLANC");
+            return couleur;
+        }
     }
 }
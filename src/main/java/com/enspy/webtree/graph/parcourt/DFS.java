@@ -2,66 +2,203 @@ package com.enspy.webtree.graph.parcourt;
 
 import java.util.*;
 
-import com.enspy.webtree.graph.GraphBuilder;
-import com.enspy.webtree.graph.GraphBuilder.Neighbor;
+import com.enspy.webtree.graph.CompactGraph;
 import org.springframework.stereotype.Component;
 
+/**
+ * Parcours en profondeur sans état et itératif : la pile d'appels est remplacée par une pile
+ * d'entiers, un graphe très profond ne peut donc pas provoquer de StackOverflowError. Les
+ * dates et parents vivent dans des tableaux propres à l'appel et sont retournés dans un
+ * {@link Result} immuable.
+ */
 @Component
 public class DFS {
 
-    private Map<UUID, Integer> d = new HashMap<>(); // Date de découverte
-    private Map<UUID, Integer> f = new HashMap<>(); // Date de fin
-    private Map<UUID, UUID> p = new HashMap<>(); // Parent de chaque sommet
-    private Map<UUID, String> couleur = new HashMap<>(); // Couleur pour marquer l'état de chaque sommet (BLANC, GRIS, NOIR)
-    private int date = 0; // Variable pour la gestion des dates
+    private static final byte BLANC = 0;
+    private static final byte GRIS = 1;
+    private static final byte NOIR = 2;
 
-    // Fonction principale pour démarrer le DFS
-    public void dfs(Map<UUID, List<GraphBuilder.Neighbor>> graph) {
-        for (UUID u : graph.keySet()) {
-            // Initialisation
-            couleur.put(u, "BLANC");
-            p.put(u, null);
+    /**
+     * Rappels optionnels pendant le parcours. Retourner false interrompt immédiatement le
+     * parcours : le résultat est alors partiel ({@link Result#isComplete()} vaut false).
+     */
+    public interface Visitor {
+        default boolean discover(int vertex, int parent, int time) {
+            return true;
         }
 
-        // Parcours de tous les sommets
-        for (UUID u : graph.keySet()) {
-            if (couleur.get(u).equals("BLANC")) {
-                visiter(u, graph);
-            }
+        default boolean finish(int vertex, int time) {
+            return true;
         }
     }
 
-    // Fonction pour visiter un sommet u
-    private void visiter(UUID u, Map<UUID, List<GraphBuilder.Neighbor>> graph) {
-        couleur.put(u, "GRIS"); // Sommet en cours d'exploration
-        date++;
-        d.put(u, date); // Marquer la date de découverte
-        for (GraphBuilder.Neighbor neighbor : graph.get(u)) {
-            UUID v = neighbor.id;
-            if (couleur.get(v).equals("BLANC")) {
-                p.put(v, u); // Marquer le parent
-                visiter(v, graph); // Exploration récursive
+    private static final Visitor NO_VISITOR = new Visitor() {
+    };
+
+    // Fonction principale pour démarrer le DFS
+    public Result dfs(CompactGraph graph) {
+        return dfs(graph, NO_VISITOR);
+    }
+
+    // Parcours de tous les sommets, dans l'ordre des indices
+    public Result dfs(CompactGraph graph, Visitor visitor) {
+        Parcours parcours = new Parcours(graph, visitor);
+        boolean complete = true;
+        for (int u = 0; u < graph.vertexCount() && complete; u++) {
+            if (parcours.couleur[u] == BLANC) {
+                complete = parcours.visiter(u);
             }
         }
-        couleur.put(u, "NOIR"); // Sommet exploré
-        date++;
-        f.put(u, date); // Marquer la date de fin
+        return parcours.result(complete);
     }
 
-    // Méthodes pour récupérer les résultats
-    public Map<UUID, Integer> getDiscoveryTimes() {
-        return d;
+    // Parcours limité aux sommets accessibles depuis source
+    public Result dfs(CompactGraph graph, UUID source, Visitor visitor) {
+        Parcours parcours = new Parcours(graph, visitor);
+        int s = graph.indexOf(source);
+        boolean complete = s < 0 || parcours.visiter(s);
+        return parcours.result(complete);
     }
 
-    public Map<UUID, Integer> getFinishTimes() {
-        return f;
-    }
+    // État d'un parcours en cours, indexé par sommet
+    private static final class Parcours {
+        private final CompactGraph graph;
+        private final Visitor visitor;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] d; // Date de découverte
+        private final int[] f; // Date de fin
+        private final int[] p; // Parent de chaque sommet
+        private final int[] next; // Prochain arc à examiner pour chaque sommet GRIS
+        private final int[] stack; // Sommets GRIS, du plus ancien au plus récent
+        private final byte[] couleur; // État de chaque sommet (BLANC, GRIS, NOIR)
+        private int date = 0; // Variable pour la gestion des dates
+
+        Parcours(CompactGraph graph, Visitor visitor) {
+            int n = graph.vertexCount();
+            this.graph = graph;
+            this.visitor = visitor;
+            this.offsets = graph.offsets();
+            this.targets = graph.targets();
+            this.d = new int[n];
+            this.f = new int[n];
+            this.p = new int[n];
+            this.next = new int[n];
+            this.stack = new int[n];
+            this.couleur = new byte[n];
+            Arrays.fill(p, -1);
+        }
 
-    public Map<UUID, UUID> getParents() {
-        return p;
+        // Visite de tout ce qui est accessible depuis root ; false si le visiteur a interrompu
+        boolean visiter(int root) {
+            int top = 0;
+            if (!decouvrir(root, -1)) return false;
+            stack[top++] = root;
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (next[u] < offsets[u + 1]) {
+                    int v = targets[next[u]++];
+                    if (couleur[v] == BLANC) {
+                        p[v] = u; // Marquer le parent
+                        if (!decouvrir(v, u)) return false;
+                        stack[top++] = v; // Exploration de v avant de reprendre u
+                    }
+                } else {
+                    top--;
+                    couleur[u] = NOIR; // Sommet exploré
+                    date++;
+                    f[u] = date; // Marquer la date de fin
+                    if (!visitor.finish(u, date)) return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean decouvrir(int u, int parent) {
+            couleur[u] = GRIS; // Sommet en cours d'exploration
+            date++;
+            d[u] = date; // Marquer la date de découverte
+            next[u] = offsets[u];
+            return visitor.discover(u, parent, date);
+        }
+
+        Result result(boolean complete) {
+            return new Result(graph, d, f, p, couleur, complete);
+        }
     }
 
-    public Map<UUID, String> getColors() {
-        return couleur;
+    // Résultat d'un parcours : dates de découverte et de fin (0 si non atteinte), parents
+    public static final class Result {
+        private final CompactGraph graph;
+        private final int[] discovery;
+        private final int[] finish;
+        private final int[] parents;
+        private final byte[] colors;
+        private final boolean complete;
+
+        Result(CompactGraph graph, int[] discovery, int[] finish, int[] parents, byte[] colors, boolean complete) {
+            this.graph = graph;
+            this.discovery = discovery;
+            this.finish = finish;
+            this.parents = parents;
+            this.colors = colors;
+            this.complete = complete;
+        }
+
+        public CompactGraph getGraph() {
+            return graph;
+        }
+
+        // false si un visiteur a interrompu le parcours
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public boolean isVisited(int vertex) {
+            return colors[vertex] != BLANC;
+        }
+
+        public int discoveryTime(int vertex) {
+            return discovery[vertex];
+        }
+
+        public int finishTime(int vertex) {
+            return finish[vertex];
+        }
+
+        // -1 pour une racine de la forêt de parcours
+        public int parent(int vertex) {
+            return parents[vertex];
+        }
+
+        // Méthodes pour récupérer les résultats par UUID
+        public Map<UUID, Integer> getDiscoveryTimes() {
+            return byId(discovery);
+        }
+
+        public Map<UUID, Integer> getFinishTimes() {
+            return byId(finish);
+        }
+
+        public Map<UUID, UUID> getParents() {
+            Map<UUID, UUID> p = new HashMap<>();
+            for (int u = 0; u < parents.length; u++) p.put(graph.idOf(u), parents[u] < 0 ? null : graph.idOf(parents[u]));
+            return p;
+        }
+
+        public Map<UUID, String> getColors() {
+            Map<UUID, String> couleur = new HashMap<>();
+            for (int u = 0; u < colors.length; u++) {
+                couleur.put(graph.idOf(u), colors[u] == NOIR ? "NOIR" : colors[u] == GRIS ? "GRIS" : "BLANC");
+            }
+            return couleur;
+        }
+
+        private Map<UUID, Integer> byId(int[] values) {
+            Map<UUID, Integer> map = new HashMap<>();
+            for (int u = 0; u < values.length; u++) map.put(graph.idOf(u), values[u]);
+            return map;
+        }
     }
 }
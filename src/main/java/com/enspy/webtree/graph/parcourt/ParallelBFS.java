@@ -0,0 +1,205 @@
+package com.enspy.webtree.graph.parcourt;
+
+import com.enspy.webtree.graph.CompactGraph;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parcours en largeur parallèle, synchronisé par niveau et à direction optimisée (Beamer).
+ *
+ * Chaque niveau est traité sur un ForkJoinPool :
+ * - descendant (top-down) : les sommets de la frontière réclament leurs voisins non visités
+ *   par CAS sur un bitset atomique ;
+ * - ascendant (bottom-up) : chaque sommet non visité cherche parmi ses arcs entrants un parent
+ *   dans la frontière et s'arrête au premier trouvé.
+ * On passe en ascendant quand la frontière porte plus d'arcs que le reste du graphe / ALPHA, et
+ * on revient en descendant quand elle retombe sous n / BETA sommets.
+ *
+ * Les distances sont identiques à celles de {@link BFS} ; le parent retenu peut différer
+ * lorsqu'un sommet a plusieurs parents possibles au même niveau.
+ */
+public class ParallelBFS {
+
+    private static final int GRAIN = 1024;
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBFS() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelBFS(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public BFS.Result bfs(CompactGraph graph, UUID source) {
+        Parcours parcours = new Parcours(graph);
+        int s = graph.indexOf(source);
+        if (s >= 0) parcours.run(s);
+        return new BFS.Result(graph, s, parcours.d, parcours.p);
+    }
+
+    // Traitement d'une tranche [lo, hi) d'un niveau ; retourne les sommets découverts
+    private interface Step {
+        int[] run(int lo, int hi);
+    }
+
+    private final class Parcours {
+        private final int n;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] revOffsets;
+        private final int[] revTargets;
+        private final int[] d;
+        private final int[] p;
+        private final AtomicLongArray visited;
+        private final long[] inFrontier;
+
+        Parcours(CompactGraph graph) {
+            this.n = graph.vertexCount();
+            this.offsets = graph.offsets();
+            this.targets = graph.targets();
+            CompactGraph reverse = graph.reverse();
+            this.revOffsets = reverse.offsets();
+            this.revTargets = reverse.targets();
+            this.d = new int[n];
+            this.p = new int[n];
+            this.visited = new AtomicLongArray((n + 63) >>> 6);
+            this.inFrontier = new long[(n + 63) >>> 6];
+            Arrays.fill(d, Integer.MAX_VALUE);
+            Arrays.fill(p, -1);
+        }
+
+        void run(int source) {
+            claim(source);
+            d[source] = 0;
+            int[] frontier = {source};
+            long unexploredEdges = offsets[n] - degree(source);
+            boolean bottomUp = false;
+
+            for (int level = 0; frontier.length > 0; level++) {
+                long frontierEdges = 0;
+                for (int u : frontier) frontierEdges += degree(u);
+
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontier.length < n / BETA) {
+                    bottomUp = false;
+                }
+
+                int next = level + 1;
+                int[] found;
+                if (bottomUp) {
+                    Arrays.fill(inFrontier, 0L);
+                    for (int u : frontier) inFrontier[u >>> 6] |= 1L << u;
+                    found = pool.invoke(new LevelTask((lo, hi) -> bottomUp(lo, hi, next), 0, n));
+                } else {
+                    int[] current = frontier;
+                    found = pool.invoke(new LevelTask((lo, hi) -> topDown(current, lo, hi, next), 0, current.length));
+                }
+                for (int v : found) unexploredEdges -= degree(v);
+                frontier = found;
+            }
+        }
+
+        private int[] topDown(int[] frontier, int lo, int hi, int level) {
+            IntList out = new IntList();
+            for (int i = lo; i < hi; i++) {
+                int u = frontier[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (!isVisited(v) && claim(v)) {
+                        d[v] = level;
+                        p[v] = u;
+                        out.add(v);
+                    }
+                }
+            }
+            return out.toArray();
+        }
+
+        private int[] bottomUp(int lo, int hi, int level) {
+            IntList out = new IntList();
+            for (int v = lo; v < hi; v++) {
+                if (isVisited(v)) continue;
+                for (int e = revOffsets[v]; e < revOffsets[v + 1]; e++) {
+                    int u = revTargets[e];
+                    if ((inFrontier[u >>> 6] & (1L << u)) != 0) {
+                        // Seule cette tranche traite v : le CAS réussit, il ne sert qu'à publier le bit
+                        claim(v);
+                        d[v] = level;
+                        p[v] = u;
+                        out.add(v);
+                        break;
+                    }
+                }
+            }
+            return out.toArray();
+        }
+
+        private int degree(int u) {
+            return offsets[u + 1] - offsets[u];
+        }
+
+        private boolean isVisited(int v) {
+            return (visited.get(v >>> 6) & (1L << v)) != 0;
+        }
+
+        // Marque v comme visité ; false si un autre thread l'a déjà réclamé
+        private boolean claim(int v) {
+            int word = v >>> 6;
+            long bit = 1L << v;
+            while (true) {
+                long current = visited.get(word);
+                if ((current & bit) != 0) return false;
+                if (visited.compareAndSet(word, current, current | bit)) return true;
+            }
+        }
+    }
+
+    // Découpe récursive d'un niveau en tranches de GRAIN éléments
+    private static final class LevelTask extends RecursiveTask<int[]> {
+        private final Step step;
+        private final int lo;
+        private final int hi;
+
+        LevelTask(Step step, int lo, int hi) {
+            this.step = step;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo <= GRAIN) return step.run(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            LevelTask left = new LevelTask(step, lo, mid);
+            left.fork();
+            int[] right = new LevelTask(step, mid, hi).compute();
+            int[] first = left.join();
+            int[] merged = Arrays.copyOf(first, first.length + right.length);
+            System.arraycopy(right, 0, merged, first.length, right.length);
+            return merged;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.enspy.webtree.graph.parente;
+
+import com.enspy.webtree.graph.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Index d'ancêtres communs (LCA) par remontée binaire (binary lifting).
+ *
+ * Une relation source -> target est lue comme parent -> enfant. Chaque personne reçoit un
+ * parent principal : le premier de ses parents à être placé dans l'ordre topologique. Ces liens
+ * forment une forêt sur laquelle la table up[k][v] (ancêtre de v à 2^k générations) donne le
+ * LCA de deux personnes en O(log n).
+ *
+ * Ce LCA n'est exact que si toute l'ascendance des deux personnes suit les parents principaux
+ * (lignée simple, marquée à la construction). Dès qu'un parent multiple intervient,
+ * {@link #kinship} remonte l'ascendance des deux personnes en largeur, en alternance, et
+ * s'arrête dès qu'aucun ancêtre plus proche ne peut plus apparaître : seuls les ancêtres situés
+ * à moins de générations que l'ancêtre commun trouvé sont visités. Cette recherche travaille sur
+ * des tableaux d'entiers marqués par numéro de recherche, repris d'une requête à l'autre dans
+ * une réserve propre à l'index : aucune boîte ni table de hachage par ancêtre visité, et aucune
+ * remise à zéro en O(n).
+ *
+ * Les personnes prises dans un cycle de relations (donnée incohérente) deviennent des racines
+ * pour la forêt et ne sont jamais en lignée simple.
+ */
+public final class AncestorIndex {
+
+    private final CompactGraph graph;
+    private final int[] depth;  // Génération dans la forêt des parents principaux
+    private final int[][] up;   // up[k][v] : ancêtre principal à 2^k générations, -1 au-delà de la racine
+    private final boolean[] simpleLine; // Toute l'ascendance passe par les parents principaux
+    private final Queue<AncestorSearch> searches = new ConcurrentLinkedQueue<>(); // Tableaux libres, un par requête en cours
+
+    private AncestorIndex(CompactGraph graph, int[] depth, int[][] up, boolean[] simpleLine) {
+        this.graph = graph;
+        this.depth = depth;
+        this.up = up;
+        this.simpleLine = simpleLine;
+    }
+
+    public static AncestorIndex of(CompactGraph graph) {
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+
+        // Ordre topologique (Kahn) : un parent est placé avant ses enfants
+        int[] pending = new int[n];
+        for (int e = 0; e < targets.length; e++) pending[targets[e]]++;
+        int[] parent = new int[n];
+        int[] depth = new int[n];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (pending[v] == 0) queue[tail++] = v;
+        }
+        boolean[] placed = new boolean[n];
+        boolean[] simpleLine = new boolean[n];
+        Arrays.fill(simpleLine, true);
+        int next = 0; // Prochain sommet à examiner pour débloquer un cycle
+        while (tail < n || head < tail) {
+            if (head == tail) { // Reste un cycle : son premier sommet devient une racine
+                while (placed[next] || pending[next] == 0) next++;
+                pending[next] = 0;
+                simpleLine[next] = false;
+                queue[tail++] = next;
+            }
+            int u = queue[head++];
+            placed[u] = true;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (pending[v] == 0) continue; // Déjà placé
+                if (parent[v] < 0) {
+                    parent[v] = u;
+                    depth[v] = depth[u] + 1;
+                    simpleLine[v] = simpleLine[u];
+                } else if (parent[v] != u) {
+                    simpleLine[v] = false; // Second parent
+                }
+                if (--pending[v] == 0) queue[tail++] = v;
+            }
+        }
+
+        int maxDepth = 0;
+        for (int d : depth) maxDepth = Math.max(maxDepth, d);
+        int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+        int[][] up = new int[levels][];
+        up[0] = parent;
+        for (int k = 1; k < levels; k++) {
+            int[] previous = up[k - 1];
+            int[] current = new int[n];
+            for (int v = 0; v < n; v++) current[v] = previous[v] < 0 ? -1 : previous[previous[v]];
+            up[k] = current;
+        }
+        return new AncestorIndex(graph, depth, up, simpleLine);
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // Ancêtre commun le plus proche dans la forêt des parents principaux, -1 s'il n'y en a pas
+    public int lca(int a, int b) {
+        if (depth[a] < depth[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        a = ancestor(a, depth[a] - depth[b]);
+        if (a == b) return a;
+        for (int k = up.length - 1; k >= 0; k--) {
+            if (up[k][a] != up[k][b]) {
+                a = up[k][a];
+                b = up[k][b];
+            }
+        }
+        return up[0][a] == up[0][b] ? up[0][a] : -1;
+    }
+
+    // Ancêtre principal de v à exactement g générations
+    private int ancestor(int v, int g) {
+        for (int k = 0; g > 0 && v >= 0; k++, g >>= 1) {
+            if ((g & 1) != 0) v = up[k][v];
+        }
+        return v;
+    }
+
+    /**
+     * Plus proche(s) ancêtre(s) commun(s) de a et b, pour la plus petite somme des générations
+     * qui les en séparent. Retourne null s'ils n'ont aucun ancêtre commun.
+     */
+    public Kinship kinship(int a, int b) {
+        if (simpleLine[a] && simpleLine[b]) {
+            int l = lca(a, b);
+            if (l < 0) return null;
+            Kinship kinship = new Kinship(graph, depth[a] - depth[l], depth[b] - depth[l]);
+            kinship.ancestors.add(l);
+            return kinship;
+        }
+        return searchCommonAncestors(a, b);
+    }
+
+    // Remontée en largeur alternée depuis a et b, arrêtée dès que le meilleur ancêtre est sûr
+    private Kinship searchCommonAncestors(int a, int b) {
+        if (a == b) {
+            Kinship kinship = new Kinship(graph, 0, 0);
+            kinship.ancestors.add(a);
+            return kinship;
+        }
+        AncestorSearch search = searches.poll();
+        if (search == null) search = new AncestorSearch(graph.vertexCount());
+        try {
+            return search.run(graph, a, b);
+        } finally {
+            searches.offer(search);
+        }
+    }
+
+    /**
+     * Tableaux d'une remontée bidirectionnelle. Un sommet est vu d'un côté si sa marque porte le
+     * numéro de la recherche courante ; chaque file contient les sommets vus de son côté, par
+     * génération croissante, et la génération courante en est la fin.
+     */
+    private static final class AncestorSearch {
+
+        private final int[][] seen = new int[2][];
+        private final int[][] level = new int[2][];
+        private final int[][] queue = new int[2][];
+        private int search = 0;
+
+        AncestorSearch(int n) {
+            for (int side = 0; side < 2; side++) {
+                seen[side] = new int[n];
+                level[side] = new int[n];
+                queue[side] = new int[n];
+            }
+        }
+
+        Kinship run(CompactGraph graph, int a, int b) {
+            if (++search == Integer.MAX_VALUE) {
+                Arrays.fill(seen[0], 0);
+                Arrays.fill(seen[1], 0);
+                search = 1;
+            }
+            CompactGraph reverse = graph.reverse();
+            int[] revOffsets = reverse.offsets();
+            int[] revTargets = reverse.targets();
+
+            int[] head = new int[2]; // Début de la génération courante dans chaque file
+            int[] tail = {1, 1};
+            int[] depth = new int[2];
+            queue[0][0] = a;
+            queue[1][0] = b;
+            seen[0][a] = search;
+            seen[1][b] = search;
+            level[0][a] = 0;
+            level[1][b] = 0;
+            Kinship best = null;
+
+            while (head[0] < tail[0] || head[1] < tail[1]) {
+                // Un ancêtre commun pas encore vu est à plus de depth[0] générations de a, ou à plus de depth[1] de b
+                int bound = Math.min(head[0] < tail[0] ? depth[0] : Integer.MAX_VALUE,
+                                     head[1] < tail[1] ? depth[1] : Integer.MAX_VALUE) + 1;
+                if (best != null && best.generationsFromA + best.generationsFromB <= bound) break;
+
+                int side = head[0] < tail[0] && (head[1] >= tail[1] || depth[0] <= depth[1]) ? 0 : 1;
+                int other = 1 - side;
+                int g = ++depth[side];
+                int end = tail[side];
+                for (int i = head[side]; i < end; i++) {
+                    int u = queue[side][i];
+                    for (int e = revOffsets[u]; e < revOffsets[u + 1]; e++) {
+                        int p = revTargets[e];
+                        if (seen[side][p] == search) continue;
+                        seen[side][p] = search;
+                        level[side][p] = g;
+                        queue[side][tail[side]++] = p;
+                        if (seen[other][p] != search) continue;
+                        int da = side == 0 ? g : level[0][p];
+                        int db = side == 0 ? level[1][p] : g;
+                        if (best == null || da + db < best.generationsFromA + best.generationsFromB) {
+                            best = new Kinship(graph, da, db);
+                            best.ancestors.add(p);
+                        } else if (da == best.generationsFromA && db == best.generationsFromB) {
+                            best.ancestors.add(p);
+                        }
+                    }
+                }
+                head[side] = end;
+            }
+            return best;
+        }
+    }
+
+    // Ancêtres communs les plus proches et générations qui les séparent des deux personnes
+    public static final class Kinship {
+        private final CompactGraph graph;
+        private final List<Integer> ancestors = new ArrayList<>(2);
+        private final int generationsFromA;
+        private final int generationsFromB;
+
+        Kinship(CompactGraph graph, int generationsFromA, int generationsFromB) {
+            this.graph = graph;
+            this.generationsFromA = generationsFromA;
+            this.generationsFromB = generationsFromB;
+        }
+
+        public List<UUID> getCommonAncestors() {
+            List<UUID> ids = new ArrayList<>(ancestors.size());
+            for (int v : ancestors) ids.add(graph.idOf(v));
+            return ids;
+        }
+
+        public int getGenerationsFromA() {
+            return generationsFromA;
+        }
+
+        public int getGenerationsFromB() {
+            return generationsFromB;
+        }
+
+        // Écart de générations entre a et b
+        public int getGenerationGap() {
+            return Math.abs(generationsFromA - generationsFromB);
+        }
+
+        // Ligne directe : l'une des deux personnes est l'ancêtre de l'autre
+        public boolean isDirectLine() {
+            return Math.min(generationsFromA, generationsFromB) == 0;
+        }
+
+        // 0 pour frères et sœurs (ou oncle/neveu), 1 pour cousins germains... ; -1 en ligne directe
+        public int getCousinDegree() {
+            return Math.min(generationsFromA, generationsFromB) - 1;
+        }
+
+        // Nombre de générations de décalage (« cousin issu de germain une fois éloigné »)
+        public int getRemoved() {
+            return getGenerationGap();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.enspy.webtree.graph.parente;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entourage d'une personne limité en générations : ses ancêtres jusqu'à up générations (arcs
+ * entrants), ses descendants jusqu'à down générations (arcs sortants), et les relations entre
+ * ces personnes. Une relation source -> target est lue comme parent -> enfant.
+ *
+ * Les deux parcours en largeur s'arrêtent à leur limite et ne notent que les sommets atteints
+ * dans une table de hachage : le coût dépend de la taille de l'entourage, pas de celle du
+ * graphe. Chaque personne indique si elle a des parents ou des enfants hors de l'entourage,
+ * pour que le client puisse déplier une branche à la demande.
+ *
+ * Les arcs entrants sont lus dans le graphe transposé, construit une seule fois : chaque
+ * nouvelle version produite par {@link CompactGraph#withEdge} le reçoit déjà à jour.
+ */
+public final class Neighbourhood {
+
+    private final CompactGraph graph;
+    private final List<Integer> vertices;
+    private final Map<Integer, Integer> generations; // Négative pour les ancêtres, positive pour les descendants
+    private final List<Edge> edges = new ArrayList<>();
+    private final boolean[] hiddenParents;
+    private final boolean[] hiddenChildren;
+
+    private Neighbourhood(CompactGraph graph, List<Integer> vertices, Map<Integer, Integer> generations) {
+        this.graph = graph;
+        this.vertices = vertices;
+        this.generations = generations;
+        this.hiddenParents = new boolean[vertices.size()];
+        this.hiddenChildren = new boolean[vertices.size()];
+    }
+
+    // Entourage vide si root n'apparaît dans aucune relation
+    public static Neighbourhood of(CompactGraph graph, int root, int up, int down) {
+        List<Integer> vertices = new ArrayList<>();
+        Map<Integer, Integer> generations = new HashMap<>();
+        if (root >= 0) {
+            vertices.add(root);
+            generations.put(root, 0);
+            walk(graph.reverse(), root, up, -1, vertices, generations);
+            walk(graph, root, down, 1, vertices, generations);
+        }
+
+        Neighbourhood neighbourhood = new Neighbourhood(graph, vertices, generations);
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+        int[] revOffsets = graph.reverse().offsets();
+        int[] revTargets = graph.reverse().targets();
+        for (int i = 0; i < vertices.size(); i++) {
+            int u = vertices.get(i);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (generations.containsKey(targets[e])) {
+                    neighbourhood.edges.add(new Edge(graph.idOf(u), graph.idOf(targets[e]), weights[e]));
+                } else {
+                    neighbourhood.hiddenChildren[i] = true;
+                }
+            }
+            for (int e = revOffsets[u]; e < revOffsets[u + 1] && !neighbourhood.hiddenParents[i]; e++) {
+                neighbourhood.hiddenParents[i] = !generations.containsKey(revTargets[e]);
+            }
+        }
+        return neighbourhood;
+    }
+
+    // Parcours en largeur depuis root sur limit niveaux ; step donne le signe de la génération
+    private static void walk(CompactGraph graph, int root, int limit, int step,
+                             List<Integer> vertices, Map<Integer, Integer> generations) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        Set<Integer> seen = new HashSet<>();
+        seen.add(root);
+        List<Integer> frontier = List.of(root);
+        for (int depth = 1; depth <= limit && !frontier.isEmpty(); depth++) {
+            List<Integer> next = new ArrayList<>();
+            for (int u : frontier) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (!seen.add(v)) continue;
+                    next.add(v);
+                    // Un sommet déjà placé par l'autre parcours (cycle de relations) garde sa génération
+                    if (generations.putIfAbsent(v, step * depth) == null) vertices.add(v);
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // Nombre de personnes, racine comprise (en position 0)
+    public int size() {
+        return vertices.size();
+    }
+
+    public int vertex(int i) {
+        return vertices.get(i);
+    }
+
+    public int generation(int i) {
+        return generations.get(vertices.get(i));
+    }
+
+    public boolean hasHiddenParents(int i) {
+        return hiddenParents[i];
+    }
+
+    public boolean hasHiddenChildren(int i) {
+        return hiddenChildren[i];
+    }
+
+    // Relations entre personnes de l'entourage
+    public List<Edge> getEdges() {
+        return edges;
+    }
+}
@@ -0,0 +1,185 @@
+package com.enspy.webtree.graph.parente;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.parcourt.DFS;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index d'accessibilité par intervalles, construit en un seul DFS.
+ *
+ * Le DFS numérote les sommets dans l'ordre de fin (post-ordre) : les descendants d'un sommet
+ * dans l'arbre du DFS occupent alors un intervalle contigu de numéros. Dans un arbre, cet
+ * intervalle suffit ; un enfant à plusieurs parents n'est pourtant dans l'arbre du DFS que sous
+ * l'un d'eux. L'étiquette d'un sommet est donc l'union, fusionnée, de son propre intervalle et
+ * des étiquettes de ses enfants, calculée dans l'ordre de fin (les enfants d'abord). Un cycle
+ * de relations rend une passe insuffisante : on recommence jusqu'à stabilité.
+ *
+ * x est un ancêtre de y si le numéro de y tombe dans un intervalle de x : O(1) pour un sommet à
+ * un seul intervalle (lignée d'arbre), O(log k) par recherche dichotomique sinon.
+ *
+ * Dans le pire cas (descendants dont les numéros alternent avec ceux d'autres branches), une
+ * étiquette compte O(n) intervalles et l'index O(n²) entiers. Une étiquette est donc limitée à
+ * {@link #MAX_INTERVALS} intervalles : au-delà, le sommet n'en garde pas, ses ancêtres non plus,
+ * et la requête descend depuis lui à travers les seuls sommets sans étiquette, en consultant
+ * l'étiquette des premiers descendants qui en ont une. La mémoire reste en O(n · MAX_INTERVALS).
+ */
+public final class ReachabilityIndex {
+
+    private final CompactGraph graph;
+    private final int[] post;       // Numéro de fin de chaque sommet, 0..n-1
+    private final int[][] labels;   // Intervalles [début, fin] triés et disjoints, à plat ; null au-delà de la limite
+
+    public static final int MAX_INTERVALS = 64;
+
+    private ReachabilityIndex(CompactGraph graph, int[] post, int[][] labels) {
+        this.graph = graph;
+        this.post = post;
+        this.labels = labels;
+    }
+
+    public static ReachabilityIndex of(CompactGraph graph, DFS dfs) {
+        return of(graph, dfs, MAX_INTERVALS);
+    }
+
+    static ReachabilityIndex of(CompactGraph graph, DFS dfs, int maxIntervals) {
+        int n = graph.vertexCount();
+        int[] post = new int[n];
+        int[] low = new int[n];   // Plus petit numéro de fin du sous-arbre du DFS
+        int[] order = new int[n]; // Sommet portant chaque numéro de fin
+        int[] counter = new int[1];
+        dfs.dfs(graph, new DFS.Visitor() {
+            @Override
+            public boolean discover(int vertex, int parent, int time) {
+                low[vertex] = counter[0]; // Les descendants finiront avant lui
+                return true;
+            }
+
+            @Override
+            public boolean finish(int vertex, int time) {
+                post[vertex] = counter[0];
+                order[counter[0]++] = vertex;
+                return true;
+            }
+        });
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[][] labels = new int[n][];
+        for (int v = 0; v < n; v++) labels[v] = new int[]{low[v], post[v]};
+
+        // Sans arc retour (post[v] > post[u]), les enfants sont finalisés avant le parent : une passe suffit
+        boolean cyclic = false;
+        for (int u = 0; u < n && !cyclic; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (post[targets[e]] >= post[u]) {
+                    cyclic = true;
+                    break;
+                }
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int p = 0; p < n; p++) {
+                int v = order[p];
+                if (labels[v] == null) continue; // Sans étiquette, définitivement
+                int[] merged = merge(labels[v], offsets[v], offsets[v + 1], targets, labels, maxIntervals);
+                if (!Arrays.equals(merged, labels[v])) {
+                    labels[v] = merged;
+                    changed = cyclic;
+                }
+            }
+        }
+        return new ReachabilityIndex(graph, post, labels);
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // y est accessible depuis x par au moins une relation (x ancêtre de y) ; faux pour x == y
+    public boolean isAncestor(int x, int y) {
+        if (x == y) return false;
+        if (labels[x] == null) return searchDescendants(x, y);
+        return covers(labels[x], post[y]);
+    }
+
+    private static boolean covers(int[] label, int target) {
+        if (label.length == 2) return label[0] <= target && target <= label[1];
+
+        // Dernier intervalle dont le début est <= target
+        int lo = 0, hi = label.length / 2 - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (label[2 * mid] <= target) lo = mid; else hi = mid - 1;
+        }
+        return label[2 * lo] <= target && target <= label[2 * lo + 1];
+    }
+
+    // Descente depuis x à travers les sommets sans étiquette ; un descendant étiqueté répond pour les siens
+    private boolean searchDescendants(int x, int y) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        BitSet visited = new BitSet();
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = x;
+        visited.set(x);
+        while (size > 0) {
+            int u = stack[--size];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (v == y) return true;
+                if (visited.get(v)) continue;
+                visited.set(v);
+                if (labels[v] != null) {
+                    if (covers(labels[v], post[y])) return true;
+                    continue;
+                }
+                if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+                stack[size++] = v;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Union de l'étiquette du sommet et de celles de ses enfants, intervalles contigus fusionnés ;
+     * null si un enfant n'a pas d'étiquette ou si l'union dépasse maxIntervals intervalles.
+     */
+    private static int[] merge(int[] own, int from, int to, int[] targets, int[][] labels, int maxIntervals) {
+        int total = own.length / 2;
+        for (int e = from; e < to; e++) {
+            if (labels[targets[e]] == null) return null;
+            total += labels[targets[e]].length / 2;
+        }
+        if (total == own.length / 2) return own;
+
+        long[] intervals = new long[total];
+        int k = 0;
+        for (int i = 0; i < own.length; i += 2) intervals[k++] = ((long) own[i] << 32) | own[i + 1];
+        for (int e = from; e < to; e++) {
+            int[] label = labels[targets[e]];
+            for (int i = 0; i < label.length; i += 2) intervals[k++] = ((long) label[i] << 32) | label[i + 1];
+        }
+        Arrays.sort(intervals); // Numéros positifs : tri par début puis fin
+
+        int[] merged = new int[2 * total];
+        int size = 0;
+        for (long interval : intervals) {
+            int start = (int) (interval >>> 32);
+            int end = (int) interval;
+            if (size > 0 && start <= merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        if (size > 2 * maxIntervals) return null;
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+}
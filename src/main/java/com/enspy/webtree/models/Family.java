@@ -29,7 +29,9 @@ public class Family {
     @JoinTable(
             name = "user_family",
             joinColumns = @JoinColumn(name = "family_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            // Membres d'une famille, et test d'appartenance d'un membre, sans parcourir toute la table
+            indexes = @Index(name = "idx_user_family_family_user", columnList = "family_id, user_id")
     )
     private List<Users> members;
 
@@ -13,6 +13,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Index des extrémités : lecture des arcs d'une famille sans parcourir toute la table
+@Table(indexes = {
+        @Index(name = "idx_relations_source", columnList = "source_id"),
+        @Index(name = "idx_relations_target", columnList = "target_id")
+})
 public class Relations {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,10 @@
+package com.enspy.webtree.repositories;
+
+import java.util.UUID;
+
+// Projection d'une relation réduite à son arc : aucune entité Users n'est chargée
+public interface RelationEdge {
+    UUID getSourceId();
+    UUID getTargetId();
+    int getPoid();
+}
@@ -1,10 +1,34 @@
 package com.enspy.webtree.repositories;
 
-import com.enspy.webtree.models.Family;
 import com.enspy.webtree.models.Relations;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface RelationRepository extends JpaRepository<Relations, UUID> {
+
+    // Lecture en flux (curseur avant seulement) de tous les arcs, à consommer dans une transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.sources.id as sourceId, r.target.id as targetId, r.poid as poid from Relations r "
+            + "where r.sources is not null and r.target is not null")
+    Stream<RelationEdge> streamEdges();
+
+    // Arcs du sous-graphe induit par une famille : source et cible en sont toutes deux membres
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.sources.id as sourceId, r.target.id as targetId, r.poid as poid "
+            + "from Family f join f.members s join f.members t, Relations r "
+            + "where f.id = :familyId and r.sources = s and r.target = t")
+    Stream<RelationEdge> streamFamilyEdges(@Param("familyId") UUID familyId);
 }
@@ -0,0 +1,31 @@
+package com.enspy.webtree.repositories;
+
+// Empreinte de la table relations : jeton de la base et nombre d'écritures depuis sa création
+public final class RelationSequence {
+
+    private final long token;
+    private final long sequence;
+
+    public RelationSequence(long token, long sequence) {
+        this.token = token;
+        this.sequence = sequence;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RelationSequence that && token == that.token && sequence == that.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(token) * 31 + Long.hashCode(sequence);
+    }
+}
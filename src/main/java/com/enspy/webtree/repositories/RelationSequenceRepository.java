@@ -0,0 +1,46 @@
+package com.enspy.webtree.repositories;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.security.SecureRandom;
+
+/**
+ * Compteur des écritures sur la table relations, tenu par des triggers SQLite.
+ *
+ * Chaque insertion, modification ou suppression d'une relation incrémente relations_sequence.seq,
+ * y compris hors de l'application : deux lectures de même séquence voient exactement les mêmes
+ * relations. Le jeton, tiré au hasard à la création du compteur, distingue deux bases dont les
+ * séquences coïncideraient. Le couple sert d'empreinte au snapshot binaire du graphe.
+ *
+ * La table et les triggers sont créés une fois le schéma JPA en place (après l'initialisation
+ * des singletons), s'ils n'existent pas encore.
+ */
+@Repository
+public class RelationSequenceRepository implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RelationSequenceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS relations_sequence ("
+                + "id INTEGER PRIMARY KEY CHECK (id = 1), token INTEGER NOT NULL, seq INTEGER NOT NULL)");
+        jdbcTemplate.update("INSERT OR IGNORE INTO relations_sequence (id, token, seq) VALUES (1, ?, 0)",
+                new SecureRandom().nextLong());
+        for (String event : new String[]{"INSERT", "UPDATE", "DELETE"}) {
+            jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS relations_sequence_" + event.toLowerCase()
+                    + " AFTER " + event + " ON relations BEGIN "
+                    + "UPDATE relations_sequence SET seq = seq + 1 WHERE id = 1; END");
+        }
+    }
+
+    public RelationSequence current() {
+        return jdbcTemplate.queryForObject("SELECT token, seq FROM relations_sequence WHERE id = 1",
+                (row, i) -> new RelationSequence(row.getLong(1), row.getLong(2)));
+    }
+}
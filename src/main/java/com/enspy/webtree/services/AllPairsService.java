@@ -0,0 +1,72 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.CheminMinimal.AllPairsSolver;
+import com.enspy.webtree.graph.CheminMinimal.DistanceMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Matrices des distances entre membres d'une famille, gardées dans un cache LRU borné.
+ *
+ * Une matrice est valable pour la version du sous-graphe de la famille à partir de laquelle
+ * elle a été calculée : une relation qui touche la famille produit une nouvelle version et la
+ * matrice est recalculée au prochain accès. Le calcul se fait hors verrou.
+ */
+@Service
+public class AllPairsService {
+
+    private final AllPairsSolver allPairsSolver;
+    private final int cacheSize;
+    private final int maxVertices;
+    private final Map<UUID, Entry> matrices = new LinkedHashMap<>(16, 0.75f, true);
+
+    public AllPairsService(AllPairsSolver allPairsSolver,
+                           @Value("${webtree.graph.all-pairs-cache-size:32}") int cacheSize,
+                           @Value("${webtree.graph.all-pairs-max-vertices:5000}") int maxVertices) {
+        this.allPairsSolver = allPairsSolver;
+        this.cacheSize = cacheSize;
+        this.maxVertices = maxVertices;
+    }
+
+    // Matrice du snapshot de la famille ; IllegalArgumentException au-delà de maxVertices membres (4 n² octets)
+    public DistanceMatrix matrix(GraphSnapshot snapshot, UUID familyId) {
+        synchronized (this) {
+            Entry entry = matrices.get(familyId);
+            if (entry != null && entry.version == snapshot.getVersion()) return entry.matrix;
+        }
+
+        int n = snapshot.getGraph().vertexCount();
+        if (n > maxVertices) {
+            throw new IllegalArgumentException("Famille trop grande pour une matrice complète : " + n + " membres");
+        }
+        DistanceMatrix matrix = allPairsSolver.solve(snapshot.getGraph());
+        synchronized (this) {
+            // Un calcul tardif sur un snapshot dépassé ne remplace pas une matrice plus récente
+            Entry entry = matrices.get(familyId);
+            if (entry != null && entry.version > snapshot.getVersion()) return matrix;
+            matrices.put(familyId, new Entry(snapshot.getVersion(), matrix));
+            if (matrices.size() > cacheSize) {
+                Iterator<UUID> eldest = matrices.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return matrix;
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final DistanceMatrix matrix;
+
+        Entry(long version, DistanceMatrix matrix) {
+            this.version = version;
+            this.matrix = matrix;
+        }
+    }
+}
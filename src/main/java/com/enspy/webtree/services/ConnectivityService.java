@@ -0,0 +1,75 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.dto.requests.RelatedPairDTO;
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.UnionFind;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Composantes connexes du graphe complet (relations prises dans les deux sens), pour répondre
+ * en O(α) à « ces deux personnes sont-elles reliées ? » sans parcourir le graphe.
+ *
+ * L'union-find est construit une fois puis suit les ajouts de relations via le journal de
+ * {@link GraphSnapshotService} : une relation ajoutée n'est qu'une union. Il n'est reconstruit
+ * qu'après un rechargement du graphe.
+ */
+@Service
+public class ConnectivityService {
+
+    private final GraphSnapshotService graphSnapshotService;
+    private UnionFind components;
+    private CompactGraph graph;
+    private long version;
+
+    public ConnectivityService(GraphSnapshotService graphSnapshotService) {
+        this.graphSnapshotService = graphSnapshotService;
+    }
+
+    public synchronized boolean related(UUID a, UUID b) {
+        refresh();
+        return connected(a, b);
+    }
+
+    // Réponses dans l'ordre des paires, sur une même version du graphe
+    public synchronized List<Boolean> related(List<RelatedPairDTO> pairs) {
+        refresh();
+        List<Boolean> answers = new ArrayList<>(pairs.size());
+        for (RelatedPairDTO pair : pairs) answers.add(connected(pair.getA(), pair.getB()));
+        return answers;
+    }
+
+    // Un membre absent du graphe n'est relié à personne, pas même à lui-même
+    private boolean connected(UUID a, UUID b) {
+        if (a == null || b == null) return false;
+        int u = graph.indexOf(a);
+        int v = graph.indexOf(b);
+        return u >= 0 && v >= 0 && (u == v || components.connected(u, v));
+    }
+
+    private void refresh() {
+        GraphSnapshot snapshot = graphSnapshotService.current();
+        if (components != null && version == snapshot.getVersion()) return;
+
+        CompactGraph next = snapshot.getGraph();
+        List<Edge> deltas = components == null ? null : graphSnapshotService.deltasBetween(version, snapshot.getVersion());
+        if (deltas == null) {
+            components = new UnionFind(next.vertexCount());
+            int[] offsets = next.offsets();
+            int[] targets = next.targets();
+            for (int u = 0; u < next.vertexCount(); u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) components.union(u, targets[e]);
+            }
+        } else {
+            components.grow(next.vertexCount());
+            for (Edge delta : deltas) components.union(next.indexOf(delta.from), next.indexOf(delta.to));
+        }
+        graph = next;
+        version = snapshot.getVersion();
+    }
+}
@@ -22,15 +22,18 @@ public class FamilyService {
 
     public FamilyService(UserRepository userRepository,
                          FamilyRepository familyRepository,
-                         RelationRepository relationRepository) {
+                         RelationRepository relationRepository,
+                         GraphSnapshotService graphSnapshotService) {
         this.userRepository = userRepository;
         this.familyRepository = familyRepository;
         this.relationRepository = relationRepository;
+        this.graphSnapshotService = graphSnapshotService;
     }
 
     private UserRepository userRepository;
     private RelationRepository relationRepository;
     private FamilyRepository familyRepository;
+    private GraphSnapshotService graphSnapshotService;
 
 
     public ApiResponse createFamily(CreateFamilyDTO createFamilyDTO) {
@@ -111,6 +114,7 @@ public class FamilyService {
                 userRepository.save(targetUser);
 
             familyRepository.save(family);
+            graphSnapshotService.onFamilyChanged(family.getId());
 
             response.setText("Members added successfully");
             response.setValue("200");
@@ -128,6 +132,7 @@ public class FamilyService {
         relations.setSources(userRepository.findByUsername(createRelation.getSourceUsername()).orElse(null));
         relations.setTarget(userRepository.findByUsername(createRelation.getTargetUsername()).orElse(null));
         relationRepository.save(relations);
+        graphSnapshotService.onRelationSaved(relations);
         return relations;
     }
 }
@@ -0,0 +1,72 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.parente.AncestorIndex;
+import com.enspy.webtree.graph.parcourt.DFS;
+import com.enspy.webtree.graph.parente.ReachabilityIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Index de parenté calculés sur le graphe complet. Chacun est construit à la première requête
+ * qui en a besoin pour une version du graphe, puis partagé par toutes les requêtes suivantes
+ * jusqu'au prochain ajout de relation.
+ */
+@Service
+public class GenealogyIndexService {
+
+    private final GraphSnapshotService graphSnapshotService;
+    private final Cached<AncestorIndex> ancestors = new Cached<>(AncestorIndex::of);
+    private final Cached<ReachabilityIndex> reachability;
+
+    public GenealogyIndexService(GraphSnapshotService graphSnapshotService, DFS dfs) {
+        this.graphSnapshotService = graphSnapshotService;
+        this.reachability = new Cached<>(graph -> ReachabilityIndex.of(graph, dfs));
+    }
+
+    public AncestorIndex ancestorIndex() {
+        return ancestors.get(graphSnapshotService.current());
+    }
+
+    public ReachabilityIndex reachabilityIndex() {
+        return reachability.get(graphSnapshotService.current());
+    }
+
+    // Index de la version la plus récente demandée, reconstruit quand la version change
+    private static final class Cached<T> {
+        private final Function<CompactGraph, T> factory;
+        private final AtomicReference<Versioned<T>> latest = new AtomicReference<>(); // Version et index publiés ensemble
+
+        Cached(Function<CompactGraph, T> factory) {
+            this.factory = factory;
+        }
+
+        T get(GraphSnapshot snapshot) {
+            Versioned<T> cached = latest.get();
+            if (cached != null && cached.version == snapshot.getVersion()) return cached.index;
+            synchronized (this) {
+                cached = latest.get();
+                if (cached != null && cached.version == snapshot.getVersion()) return cached.index;
+                T index = factory.apply(snapshot.getGraph());
+                // Un snapshot plus ancien que l'index publié est servi sans le remplacer
+                if (cached == null || cached.version < snapshot.getVersion()) {
+                    latest.set(new Versioned<>(snapshot.getVersion(), index));
+                }
+                return index;
+            }
+        }
+    }
+
+    private static final class Versioned<T> {
+        private final long version;
+        private final T index;
+
+        Versioned(long version, T index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+}
@@ -1,8 +1,126 @@
 package com.enspy.webtree.services;
 
 
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.GraphStats;
+import com.enspy.webtree.graph.CheminMinimal.BellmanFordSolver;
+import com.enspy.webtree.graph.CheminMinimal.DijkstraSolver;
+import com.enspy.webtree.graph.CheminMinimal.PathResult;
+import com.enspy.webtree.graph.parcourt.BFS;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
+/**
+ * Moteur unique de recherche de chemin : l'algorithme est choisi d'après les statistiques du
+ * graphe ({@link GraphStats}), calculées avec lui, au lieu d'être imposé par le client.
+ *
+ * - poids tous égaux et positifs ou nuls : un BFS, qui minimise le nombre d'arcs, minimise
+ *   aussi la distance, en O(V + E) ;
+ * - poids positifs ou nuls : Dijkstra, en O((V + E) log V) ;
+ * - au moins un poids négatif : Bellman-Ford (SPFA), seul exact et seul à détecter un circuit
+ *   négatif, en O(V E) dans le pire cas.
+ *
+ * Les trois s'arrêtent dès que la cible est atteinte ; le coût estimé est celui d'un parcours
+ * complet.
+ */
 @Service
 public class GraphLogicServices {
+
+    public static final String BFS = "bfs";
+    public static final String DIJKSTRA = "dijkstra";
+    public static final String BELLMAN_FORD = "bellman-ford";
+
+    private final BFS bfs;
+    private final DijkstraSolver dijkstraSolver;
+    private final BellmanFordSolver bellmanFordSolver;
+
+    public GraphLogicServices(BFS bfs, DijkstraSolver dijkstraSolver, BellmanFordSolver bellmanFordSolver) {
+        this.bfs = bfs;
+        this.dijkstraSolver = dijkstraSolver;
+        this.bellmanFordSolver = bellmanFordSolver;
+    }
+
+    public String chooseAlgorithm(GraphStats stats) {
+        if (stats.hasNegativeWeights()) return BELLMAN_FORD;
+        if (stats.hasUniformWeights()) return BFS;
+        return DIJKSTRA;
+    }
+
+    // Nombre d'opérations élémentaires attendu pour un parcours complet
+    public long estimatedCost(String algorithm, GraphStats stats) {
+        long n = stats.getVertexCount();
+        long m = stats.getEdgeCount();
+        return switch (algorithm) {
+            case BFS -> n + m;
+            case DIJKSTRA -> (n + m) * Math.max(1, 64 - Long.numberOfLeadingZeros(n));
+            default -> n * Math.max(1, m);
+        };
+    }
+
+    // Plus court chemin de sourceId à targetId ; explain ajoute le plan suivi et son coût
+    public Map<String, Object> shortestPath(CompactGraph graph, UUID sourceId, UUID targetId, boolean explain) {
+        GraphStats stats = graph.stats();
+        String algorithm = chooseAlgorithm(stats);
+
+        long start = System.nanoTime();
+        PathResult result = switch (algorithm) {
+            case BFS -> breadthFirstPath(graph, sourceId, targetId);
+            case DIJKSTRA -> dijkstraSolver.findShortestPath(sourceId, targetId, graph);
+            default -> bellmanFordSolver.findShortestPath(sourceId, targetId, graph);
+        };
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("algorithm", algorithm);
+        response.put("source", sourceId);
+        response.put("target", targetId);
+        response.put("path", result.getPath());
+        response.put("found", !result.getPath().isEmpty());
+        if (BELLMAN_FORD.equals(algorithm)) {
+            response.put("negativeCycle", result.getNegativeCycle());
+        }
+        if (explain) {
+            Map<String, Object> plan = new HashMap<>();
+            plan.put("reason", reason(algorithm, stats));
+            plan.put("vertices", stats.getVertexCount());
+            plan.put("edges", stats.getEdgeCount());
+            plan.put("density", stats.getDensity());
+            plan.put("minWeight", stats.getMinWeight());
+            plan.put("maxWeight", stats.getMaxWeight());
+            plan.put("estimatedCost", estimatedCost(algorithm, stats));
+            plan.put("settledNodes", result.getSettledNodes());
+            plan.put("elapsedMicros", elapsed / 1000);
+            response.put("plan", plan);
+        }
+        return response;
+    }
+
+    private static String reason(String algorithm, GraphStats stats) {
+        return switch (algorithm) {
+            case BFS -> "Poids tous égaux à " + stats.getMaxWeight() + " : le chemin le plus court en arcs l'est aussi en distance";
+            case DIJKSTRA -> "Poids positifs ou nuls, entre " + stats.getMinWeight() + " et " + stats.getMaxWeight();
+            default -> "Poids négatif présent (" + stats.getMinWeight() + ") : Dijkstra ne serait pas exact";
+        };
+    }
+
+    // BFS arrêté à la découverte de la cible ; les parents sont notés au fil des découvertes
+    private PathResult breadthFirstPath(CompactGraph graph, UUID sourceId, UUID targetId) {
+        int target = graph.indexOf(targetId);
+        if (graph.indexOf(sourceId) < 0 || target < 0) return new PathResult(List.of(), 0);
+        int[] parent = new int[graph.vertexCount()];
+        boolean[] found = new boolean[1];
+        int discovered = bfs.bfs(graph, sourceId, -1, (vertex, from, depth) -> {
+            parent[vertex] = from;
+            found[0] = vertex == target;
+            return !found[0];
+        });
+        if (!found[0]) return new PathResult(List.of(), discovered);
+
+        LinkedList<UUID> path = new LinkedList<>();
+        for (int step = target; step >= 0; step = parent[step]) {
+            path.addFirst(graph.idOf(step));
+        }
+        return new PathResult(path, discovered);
+    }
 }
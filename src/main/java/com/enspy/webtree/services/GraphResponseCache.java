@@ -0,0 +1,95 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.GraphSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Réponses des endpoints de graphe, indexées par la version du graphe qui les a produites.
+ *
+ * Un résultat ne dépend que de l'endpoint, de ses paramètres et de la version du graphe
+ * interrogé : il est gardé dans un cache LRU borné sous cette clé, et la version sert d'ETag
+ * pour que les clients qui interrogent en boucle reçoivent un 304 sans corps tant qu'aucune
+ * relation n'a changé. Les versions repartant de zéro au redémarrage, l'ETag porte aussi
+ * l'instant de démarrage. L'ETag est faible : deux réponses d'une même version donnent les mêmes
+ * résultats, mais des champs de diagnostic (`cached`, `settledNodes`) peuvent différer selon que
+ * la réponse sort du cache ou d'un nouveau calcul.
+ *
+ * Le graphe complet et chaque famille ont leur propre suite de versions. Dès qu'une version plus
+ * récente que la dernière vue est demandée pour l'un d'eux, ses réponses des versions
+ * précédentes, que plus personne ne peut obtenir, sont retirées du cache ; une réponse calculée
+ * sur une version déjà dépassée n'y entre pas.
+ */
+@Service
+public class GraphResponseCache {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int cacheSize;
+    private final Map<List<Object>, Object> responses = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Long> versions = new HashMap<>(); // Dernière version vue par famille, null : graphe complet
+
+    public GraphResponseCache(@Value("${webtree.graph.response-cache-size:512}") int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    // ETag faible de la version : même URL et même ETag, même résultat
+    public String etag(GraphSnapshot snapshot) {
+        return "W/\"" + epoch + "-" + snapshot.getVersion() + "\"";
+    }
+
+    // Réponse déjà calculée pour (endpoint, famille, version, paramètres), sinon calculée hors verrou puis gardée
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, UUID familyId, GraphSnapshot snapshot, Supplier<T> compute, Object... params) {
+        long version = snapshot.getVersion();
+        List<Object> key = new ArrayList<>(params.length + 3);
+        key.add(endpoint);
+        key.add(familyId);
+        key.add(version);
+        key.addAll(Arrays.asList(params)); // Paramètres nuls acceptés
+        synchronized (this) {
+            if (advance(familyId, version)) {
+                Object response = responses.get(key);
+                if (response != null) return (T) response;
+            }
+        }
+
+        T response = compute.get();
+        synchronized (this) {
+            if (!advance(familyId, version)) return response;
+            responses.put(key, response);
+            if (responses.size() > cacheSize) {
+                Iterator<List<Object>> eldest = responses.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return response;
+    }
+
+    // Note la version si elle est nouvelle et oublie les précédentes ; false si elle est déjà dépassée
+    private boolean advance(UUID familyId, long version) {
+        Long latest = versions.get(familyId);
+        if (latest != null && version < latest) return false;
+        if (latest == null || version > latest) {
+            versions.put(familyId, version);
+            responses.keySet().removeIf(key -> Objects.equals(key.get(1), familyId) && (long) key.get(2) < version);
+            // Les familles dont toutes les réponses sont sorties du cache ne sont plus suivies
+            if (versions.size() > cacheSize) {
+                versions.keySet().removeIf(family -> !Objects.equals(family, familyId)
+                        && responses.keySet().stream().noneMatch(key -> Objects.equals(key.get(1), family)));
+            }
+        }
+        return true;
+    }
+}
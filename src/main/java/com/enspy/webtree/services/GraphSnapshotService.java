@@ -0,0 +1,208 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import com.enspy.webtree.graph.GraphBuilder;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.models.Relations;
+import com.enspy.webtree.repositories.RelationSequence;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Détient le graphe courant partagé par les contrôleurs de graphe.
+ *
+ * Le graphe est lu une seule fois, au démarrage ou au premier accès, depuis le snapshot
+ * binaire s'il est encore valide et sinon depuis la base ; chaque relation enregistrée via
+ * FamilyService produit ensuite une nouvelle version par copie (copy-on-write). Les lecteurs
+ * récupèrent la version courante sans verrou ni accès à SQLite et peuvent la garder le temps
+ * de leur requête : elle ne sera jamais modifiée.
+ *
+ * Les sous-graphes par famille sont construits à la demande et gardés dans un cache LRU borné.
+ *
+ * Les dernières relations ajoutées sont aussi gardées dans un journal borné : un index dérivé du
+ * graphe (arbre couvrant, composantes...) peut ainsi se mettre à jour depuis sa version avec
+ * {@link #deltasBetween(long, long)} au lieu de tout recalculer.
+ */
+@Service
+public class GraphSnapshotService {
+
+    private static final int MAX_DELTAS = 4096;
+
+    private final GraphBuilder graphBuilder;
+    private final int familyCacheSize;
+    private final boolean preload;
+    private final Map<UUID, GraphSnapshot> families;
+    private volatile GraphSnapshot current;
+    private RelationSequence sequence; // Séquence de la table relations atteinte par le graphe courant
+    private long lastVersion = 0;
+    private long familyChanges = 0;  // Écritures pouvant modifier un sous-graphe de famille ; version des familles
+    private final ArrayDeque<Edge> deltas = new ArrayDeque<>(); // Relation ajoutée par chaque version
+    private long deltaBase = 0; // Version à laquelle s'applique la première relation du journal
+
+    public GraphSnapshotService(GraphBuilder graphBuilder,
+                                @Value("${webtree.graph.family-cache-size:256}") int familyCacheSize,
+                                @Value("${webtree.graph.preload:true}") boolean preload) {
+        this.graphBuilder = graphBuilder;
+        this.familyCacheSize = familyCacheSize;
+        this.preload = preload;
+        this.families = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public GraphSnapshot current() {
+        GraphSnapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = current;
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Graphe d'une famille, ou graphe complet si familyId est null.
+     *
+     * La version d'un sous-graphe de famille est le nombre d'écritures (relations, composition
+     * des familles) vues au moment de sa lecture : une famille relue sans écriture entre-temps,
+     * même sortie du cache, garde sa version et donc son ETag.
+     */
+    public GraphSnapshot current(UUID familyId) {
+        if (familyId == null) return current();
+
+        while (true) {
+            long changes;
+            synchronized (this) {
+                GraphSnapshot snapshot = families.get(familyId);
+                if (snapshot != null) return snapshot;
+                changes = familyChanges;
+            }
+            // Lecture hors verrou : une famille lente à charger ne bloque pas les autres
+            CompactGraph graph = graphBuilder.buildFamilyGraph(familyId);
+            synchronized (this) {
+                // Une écriture survenue pendant la lecture rend ce résultat douteux : on relit
+                if (changes != familyChanges) continue;
+                GraphSnapshot snapshot = new GraphSnapshot(changes, graph);
+                families.put(familyId, snapshot);
+                if (families.size() > familyCacheSize) {
+                    Iterator<UUID> eldest = families.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+                return snapshot;
+            }
+        }
+    }
+
+    // Relit toutes les relations, par exemple après une modification faite hors de FamilyService
+    public synchronized GraphSnapshot reload() {
+        families.clear();
+        familyChanges++;
+        GraphBuilder.LoadedGraph loaded = graphBuilder.rebuildGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(++lastVersion, loaded.getGraph());
+        current = snapshot;
+        sequence = loaded.getSequence();
+        resetDeltas();
+        return snapshot;
+    }
+
+    // Charge le graphe au démarrage pour que la première requête n'ait pas à l'attendre
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (preload) current();
+    }
+
+    // Conserve sur disque les relations ajoutées depuis le chargement
+    @PreDestroy
+    public void persist() {
+        GraphSnapshot snapshot;
+        RelationSequence expected;
+        synchronized (this) {
+            snapshot = current;
+            expected = sequence;
+        }
+        if (snapshot != null) graphBuilder.saveSnapshot(snapshot.getGraph(), expected);
+    }
+
+    // Applique une relation qui vient d'être enregistrée
+    public synchronized void onRelationSaved(Relations relation) {
+        if (relation.getSources() == null || relation.getTarget() == null) return;
+        UUID sourceId = relation.getSources().getId();
+        UUID targetId = relation.getTarget().getId();
+
+        // Un membre d'une famille non vide y a toujours au moins une relation : il suffit
+        // d'oublier les familles qui contiennent l'une des extrémités, ou qui sont encore vides
+        families.values().removeIf(family -> {
+            CompactGraph graph = family.getGraph();
+            return graph.vertexCount() == 0 || graph.indexOf(sourceId) >= 0 || graph.indexOf(targetId) >= 0;
+        });
+
+        familyChanges++;
+        long version = ++lastVersion;
+        GraphSnapshot snapshot = current;
+        if (snapshot == null) { // Le premier accès lira la relation en base
+            resetDeltas();
+            return;
+        }
+        current = new GraphSnapshot(version, snapshot.getGraph().withEdge(sourceId, targetId, relation.getPoid()));
+        // Une insertion fait avancer la séquence d'une unité ; toute autre écriture la décale et
+        // empêche simplement l'enregistrement du snapshot
+        sequence = new RelationSequence(sequence.getToken(), sequence.getSequence() + 1);
+        deltas.addLast(new Edge(sourceId, targetId, relation.getPoid()));
+        if (deltas.size() > MAX_DELTAS) {
+            deltas.removeFirst();
+            deltaBase++;
+        }
+    }
+
+    /**
+     * Relations ajoutées pour passer de la version from à la version to, dans l'ordre. Retourne
+     * null si le journal ne le permet pas (graphe rechargé entre-temps, journal tronqué) : il
+     * faut alors repartir du graphe de la version to.
+     */
+    public synchronized List<Edge> deltasBetween(long from, long to) {
+        if (from > to || from < deltaBase || to > deltaBase + deltas.size()) return null;
+        List<Edge> result = new ArrayList<>((int) (to - from));
+        long version = deltaBase;
+        for (Edge delta : deltas) {
+            if (version >= to) break;
+            if (version >= from) result.add(delta);
+            version++;
+        }
+        return result;
+    }
+
+    // La composition d'une famille a changé : son sous-graphe doit être relu
+    public synchronized void onFamilyChanged(UUID familyId) {
+        families.remove(familyId);
+        familyChanges++;
+    }
+
+    private GraphSnapshot load() {
+        GraphBuilder.LoadedGraph loaded = graphBuilder.loadGraph();
+        GraphSnapshot snapshot = new GraphSnapshot(++lastVersion, loaded.getGraph());
+        current = snapshot;
+        sequence = loaded.getSequence();
+        resetDeltas();
+        return snapshot;
+    }
+
+    // La version courante ne dérive plus de la précédente par ajout d'arcs
+    private void resetDeltas() {
+        deltas.clear();
+        deltaBase = lastVersion;
+    }
+}
@@ -0,0 +1,58 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.arbreCouvrant.IncrementalMST;
+import com.enspy.webtree.graph.arbreCouvrant.Kruskal;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Arbre couvrant minimum du graphe complet, gardé entre les requêtes.
+ *
+ * À chaque lecture, l'arbre rattrape la version du snapshot demandé en appliquant les relations
+ * ajoutées depuis (journal de {@link GraphSnapshotService}) ; il n'est recalculé par Kruskal
+ * que si le journal ne suffit pas, c'est-à-dire après un rechargement du graphe
+ * ({@link GraphSnapshotService#reload()}), seul cas où des relations ont pu être supprimées ou
+ * modifiées.
+ */
+@Service
+public class MinimumSpanningTreeService {
+
+    private final GraphSnapshotService graphSnapshotService;
+    private final Kruskal kruskal;
+    private IncrementalMST tree;
+    private long version;
+    private List<Edge> edges; // Vue figée de l'arbre pour la version courante
+
+    public MinimumSpanningTreeService(GraphSnapshotService graphSnapshotService, Kruskal kruskal) {
+        this.graphSnapshotService = graphSnapshotService;
+        this.kruskal = kruskal;
+    }
+
+    // Arbre du snapshot donné, qui doit être celui du graphe complet, et non de la version courante
+    public synchronized List<Edge> currentTree(GraphSnapshot snapshot) {
+        CompactGraph graph = snapshot.getGraph();
+        if (tree != null && version > snapshot.getVersion()) {
+            // Snapshot déjà dépassé par l'arbre maintenu : le journal ne sait pas revenir en arrière
+            return Collections.unmodifiableList(IncrementalMST.of(graph, kruskal.mstEdges(graph)).edges(graph));
+        }
+        if (tree == null || version != snapshot.getVersion()) {
+            List<Edge> deltas = tree == null ? null : graphSnapshotService.deltasBetween(version, snapshot.getVersion());
+            if (deltas == null) {
+                tree = IncrementalMST.of(graph, kruskal.mstEdges(graph));
+            } else {
+                for (Edge delta : deltas) {
+                    tree.insert(graph.indexOf(delta.from), graph.indexOf(delta.to), delta.weight);
+                }
+            }
+            version = snapshot.getVersion();
+            edges = null;
+        }
+        if (edges == null) edges = Collections.unmodifiableList(tree.edges(graph));
+        return edges;
+    }
+}
@@ -0,0 +1,107 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.dto.requests.PathRequestDTO;
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.CheminMinimal.BellmanFordSolver;
+import com.enspy.webtree.graph.CheminMinimal.DijkstraSolver;
+import com.enspy.webtree.graph.CheminMinimal.PathResult;
+import com.enspy.webtree.graph.CheminMinimal.ShortestPathTree;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Recherche de plusieurs plus courts chemins en une requête.
+ *
+ * Le graphe est récupéré une seule fois pour tout le lot. Les demandes sont regroupées par
+ * (source, algorithme) : une source demandée pour plusieurs cibles ne donne lieu qu'à un seul
+ * arbre des plus courts chemins, dont chaque chemin est ensuite lu en remontant les
+ * prédécesseurs. Ces arbres passent par le cache de {@link ShortestPathTreeService} ; une source
+ * isolée dont l'arbre n'est pas en cache garde la recherche avec arrêt anticipé sur sa cible.
+ * Les groupes sont indépendants et calculés en parallèle.
+ */
+@Service
+public class PathSearchService {
+
+    private static final String DIJKSTRA = ShortestPathTreeService.DIJKSTRA;
+    private static final String BELLMAN_FORD = ShortestPathTreeService.BELLMAN_FORD;
+
+    private final GraphSnapshotService graphSnapshotService;
+    private final DijkstraSolver dijkstraSolver;
+    private final BellmanFordSolver bellmanFordSolver;
+    private final ShortestPathTreeService shortestPathTreeService;
+
+    public PathSearchService(GraphSnapshotService graphSnapshotService,
+                             DijkstraSolver dijkstraSolver,
+                             BellmanFordSolver bellmanFordSolver,
+                             ShortestPathTreeService shortestPathTreeService) {
+        this.graphSnapshotService = graphSnapshotService;
+        this.dijkstraSolver = dijkstraSolver;
+        this.bellmanFordSolver = bellmanFordSolver;
+        this.shortestPathTreeService = shortestPathTreeService;
+    }
+
+    // Résultats dans l'ordre des demandes
+    public List<Map<String, Object>> batch(List<PathRequestDTO> requests, UUID familyId) {
+        GraphSnapshot snapshot = graphSnapshotService.current(familyId);
+        CompactGraph graph = snapshot.getGraph();
+
+        // Indices des demandes de chaque groupe (source, algorithme)
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        for (int i = 0; i < requests.size(); i++) {
+            PathRequestDTO request = requests.get(i);
+            String algorithm = algorithmOf(request);
+            if (!DIJKSTRA.equals(algorithm) && !BELLMAN_FORD.equals(algorithm)) {
+                Map<String, Object> error = buildResponse(algorithm, request, List.of());
+                error.put("error", "Algorithme inconnu : " + request.getAlgorithm());
+                results.set(i, error);
+                continue;
+            }
+            groups.computeIfAbsent(List.of(String.valueOf(request.getSourceId()), algorithm), k -> new ArrayList<>()).add(i);
+        }
+
+        // Chaque groupe écrit des positions distinctes de results
+        groups.values().parallelStream().forEach(indices -> {
+            PathRequestDTO first = requests.get(indices.get(0));
+            String algorithm = algorithmOf(first);
+            ShortestPathTree tree = shortestPathTreeService.cached(snapshot, familyId, first.getSourceId(), algorithm);
+            if (tree == null && indices.size() == 1) {
+                PathResult result = DIJKSTRA.equals(algorithm)
+                        ? dijkstraSolver.findShortestPath(first.getSourceId(), first.getTargetId(), graph)
+                        : bellmanFordSolver.findShortestPath(first.getSourceId(), first.getTargetId(), graph);
+                results.set(indices.get(0), toResponse(algorithm, first, result));
+                return;
+            }
+            if (tree == null) tree = shortestPathTreeService.tree(snapshot, familyId, first.getSourceId(), algorithm);
+            for (int i : indices) {
+                PathRequestDTO request = requests.get(i);
+                results.set(i, toResponse(algorithm, request, tree.toPathResult(request.getTargetId())));
+            }
+        });
+        return results;
+    }
+
+    private static String algorithmOf(PathRequestDTO request) {
+        return request.getAlgorithm() == null ? DIJKSTRA : request.getAlgorithm().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Object> toResponse(String algorithm, PathRequestDTO request, PathResult result) {
+        Map<String, Object> response = buildResponse(algorithm, request, result.getPath());
+        if (BELLMAN_FORD.equals(algorithm)) {
+            response.put("negativeCycle", result.getNegativeCycle());
+        }
+        return response;
+    }
+
+    private static Map<String, Object> buildResponse(String algorithm, PathRequestDTO request, List<UUID> path) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("algorithm", algorithm);
+        response.put("source", request.getSourceId());
+        response.put("target", request.getTargetId());
+        response.put("path", path);
+        response.put("found", !path.isEmpty());
+        return response;
+    }
+}
@@ -0,0 +1,135 @@
+package com.enspy.webtree.services;
+
+import com.enspy.webtree.graph.GraphSnapshot;
+import com.enspy.webtree.graph.CheminMinimal.BellmanFordSolver;
+import com.enspy.webtree.graph.CheminMinimal.DijkstraSolver;
+import com.enspy.webtree.graph.CheminMinimal.ShortestPathTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Cache LRU des arbres des plus courts chemins, par (famille, source, algorithme).
+ *
+ * L'interface demande souvent les chemins d'une même personne vers beaucoup de proches, un par
+ * un : le premier appel calcule l'arbre complet depuis la source, les suivants remontent
+ * seulement les prédécesseurs de la cible. Un arbre n'est valable que pour la version du graphe
+ * sur laquelle il a été calculé. Le cache est borné en nombre total de sommets (un arbre coûte
+ * 12 octets par sommet du graphe), les arbres les moins récemment utilisés partent en premier.
+ *
+ * Pour une requête isolée, la recherche avec arrêt sur la cible coûte moins que l'arbre complet :
+ * {@link #treeIfRepeated} ne calcule l'arbre qu'à la deuxième demande d'une même source sur une
+ * même version, en gardant trace des dernières sources demandées.
+ */
+@Service
+public class ShortestPathTreeService {
+
+    public static final String DIJKSTRA = "dijkstra";
+    public static final String BELLMAN_FORD = "bellman-ford";
+
+    private final DijkstraSolver dijkstraSolver;
+    private final BellmanFordSolver bellmanFordSolver;
+    private final long maxVertices;
+    private final Map<Key, Entry> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedVertices = 0;
+    private final Map<Key, Long> lookups = new LinkedHashMap<>(16, 0.75f, true); // Version de la dernière demande par source
+
+    private static final int MAX_LOOKUPS = 4096;
+
+    public ShortestPathTreeService(DijkstraSolver dijkstraSolver,
+                                   BellmanFordSolver bellmanFordSolver,
+                                   @Value("${webtree.graph.path-tree-cache-vertices:4000000}") long maxVertices) {
+        this.dijkstraSolver = dijkstraSolver;
+        this.bellmanFordSolver = bellmanFordSolver;
+        this.maxVertices = maxVertices;
+    }
+
+    // Arbre depuis source sur le graphe du snapshot (familyId null : graphe complet), calculé au besoin
+    public ShortestPathTree tree(GraphSnapshot snapshot, UUID familyId, UUID source, String algorithm) {
+        ShortestPathTree tree = cached(snapshot, familyId, source, algorithm);
+        if (tree != null) return tree;
+
+        // Calcul hors verrou : deux requêtes simultanées peuvent calculer le même arbre
+        tree = switch (algorithm) {
+            case DIJKSTRA -> dijkstraSolver.shortestPathTree(source, snapshot.getGraph());
+            case BELLMAN_FORD -> bellmanFordSolver.shortestPathTree(source, snapshot.getGraph());
+            default -> throw new IllegalArgumentException("Algorithme inconnu : " + algorithm);
+        };
+        int size = snapshot.getGraph().vertexCount();
+        if (size > maxVertices) return tree; // Plus grand que tout le cache
+        synchronized (this) {
+            Entry previous = trees.put(new Key(familyId, source, algorithm), new Entry(snapshot.getVersion(), tree));
+            if (previous != null) cachedVertices -= previous.tree.getGraph().vertexCount();
+            cachedVertices += size;
+            Iterator<Entry> eldest = trees.values().iterator();
+            while (cachedVertices > maxVertices) {
+                cachedVertices -= eldest.next().tree.getGraph().vertexCount();
+                eldest.remove();
+            }
+        }
+        return tree;
+    }
+
+    // Arbre en cache, ou calculé si la source a déjà été demandée sur cette version ; null à la première demande
+    public ShortestPathTree treeIfRepeated(GraphSnapshot snapshot, UUID familyId, UUID source, String algorithm) {
+        ShortestPathTree tree = cached(snapshot, familyId, source, algorithm);
+        if (tree != null) return tree;
+        boolean repeated;
+        synchronized (this) {
+            Long previous = lookups.put(new Key(familyId, source, algorithm), snapshot.getVersion());
+            repeated = previous != null && previous == snapshot.getVersion();
+            if (lookups.size() > MAX_LOOKUPS) {
+                Iterator<Long> eldest = lookups.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return repeated ? tree(snapshot, familyId, source, algorithm) : null;
+    }
+
+    // Arbre déjà en cache pour cette version, null sinon
+    public synchronized ShortestPathTree cached(GraphSnapshot snapshot, UUID familyId, UUID source, String algorithm) {
+        Entry entry = trees.get(new Key(familyId, source, algorithm));
+        return entry != null && entry.version == snapshot.getVersion() ? entry.tree : null;
+    }
+
+    private static final class Key {
+        private final UUID familyId;
+        private final UUID source;
+        private final String algorithm;
+
+        Key(UUID familyId, UUID source, String algorithm) {
+            this.familyId = familyId;
+            this.source = source;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return Objects.equals(familyId, other.familyId) && Objects.equals(source, other.source)
+                    && algorithm.equals(other.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(familyId, source, algorithm);
+        }
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final ShortestPathTree tree;
+
+        Entry(long version, ShortestPathTree tree) {
+            this.version = version;
+            this.tree = tree;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static com.enspy.webtree.graph.RandomGraphs.withNegativeWeights;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllPairsSolverTest {
+
+    private final AllPairsSolver solver = new AllPairsSolver();
+
+    private static void assertSameDistances(DistanceMatrix expected, DistanceMatrix actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.distance(i, j), actual.distance(i, j), "i=" + i + " j=" + j);
+            }
+        }
+    }
+
+    @Test
+    void blockedFloydWarshallMatchesDijkstra() {
+        // Tailles multiples ou non de la taille de bloc, graphes creux et denses
+        int[][] shapes = {{1, 1}, {31, 200}, {64, 300}, {100, 2000}, {300, 900}, {300, 20000}};
+        for (int[] shape : shapes) {
+            for (long seed = 1; seed <= 3; seed++) {
+                CompactGraph graph = randomGraph(shape[0], shape[1], seed);
+                DistanceMatrix floyd = solver.floydWarshall(graph);
+                assertFalse(floyd.hasNegativeCycle());
+                assertSameDistances(solver.dijkstra(graph), floyd);
+            }
+        }
+    }
+
+    @Test
+    void johnsonMatchesFloydWarshallWithNegativeWeights() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = withNegativeWeights(randomGraph(400, 1600, seed), true);
+            DistanceMatrix johnson = solver.solve(graph);
+            assertEquals("johnson", johnson.getMethod());
+            assertFalse(johnson.hasNegativeCycle());
+            assertSameDistances(solver.floydWarshall(graph), johnson);
+        }
+    }
+
+    @Test
+    void johnsonReportsNegativeCycles() {
+        int cycles = 0;
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = withNegativeWeights(randomGraph(300, 600, seed), false);
+            boolean expected = solver.floydWarshall(graph).hasNegativeCycle();
+            assertEquals(expected, solver.johnson(graph).hasNegativeCycle(), "seed=" + seed);
+            if (expected) cycles++;
+        }
+        assertTrue(cycles > 0, "aucun circuit négatif tiré");
+    }
+}
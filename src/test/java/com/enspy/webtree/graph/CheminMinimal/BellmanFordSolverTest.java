@@ -0,0 +1,126 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static com.enspy.webtree.graph.RandomGraphs.withNegativeWeights;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BellmanFordSolverTest {
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    // Floyd–Warshall de référence, INF si pas de chemin ; d[v][v] < 0 si v est sur un circuit négatif
+    private static long[][] floydWarshall(CompactGraph graph) {
+        int n = graph.vertexCount();
+        long[][] d = new long[n][n];
+        for (long[] row : d) Arrays.fill(row, INF);
+        for (int v = 0; v < n; v++) d[v][v] = 0;
+        int[] sources = graph.edgeSources();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int u = sources[e];
+            int v = graph.targets()[e];
+            d[u][v] = Math.min(d[u][v], graph.weights()[e]);
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                if (d[i][k] == INF) continue;
+                for (int j = 0; j < n; j++) {
+                    if (d[k][j] == INF) continue;
+                    // Bornée à -INF : un circuit négatif ferait sinon déborder les distances
+                    long candidate = Math.max(-INF, d[i][k] + d[k][j]);
+                    if (candidate < d[i][j]) d[i][j] = candidate;
+                }
+            }
+        }
+        return d;
+    }
+
+    // Poids minimal d'un arc u -> v, INF s'il n'existe pas
+    private static long arc(CompactGraph graph, int u, int v) {
+        long best = INF;
+        for (int e = graph.offsets()[u]; e < graph.offsets()[u + 1]; e++) {
+            if (graph.targets()[e] == v) best = Math.min(best, graph.weights()[e]);
+        }
+        return best;
+    }
+
+    private static long length(CompactGraph graph, List<UUID> path) {
+        long total = 0;
+        for (int i = 1; i < path.size(); i++) {
+            long w = arc(graph, graph.indexOf(path.get(i - 1)), graph.indexOf(path.get(i)));
+            assertTrue(w != INF, "arc absent " + path.get(i - 1) + " -> " + path.get(i));
+            total += w;
+        }
+        return total;
+    }
+
+    private static void assertMatchesFloydWarshall(CompactGraph graph) {
+        BellmanFordSolver solver = new BellmanFordSolver();
+        long[][] expected = floydWarshall(graph);
+        int n = graph.vertexCount();
+        for (int s = 0; s < n; s += 7) {
+            ShortestPathTree tree = solver.shortestPathTree(graph.idOf(s), graph);
+            assertFalse(tree.hasNegativeCycle());
+            for (int t = 0; t < n; t++) {
+                assertEquals(expected[s][t] != INF, tree.isReached(t), "s=" + s + " t=" + t);
+                if (expected[s][t] != INF) assertEquals(expected[s][t], tree.distance(t), "s=" + s + " t=" + t);
+            }
+            // Recherche avec arrêt sur la cible : même distance que la référence
+            for (int t = 0; t < n; t += 13) {
+                PathResult result = solver.findShortestPath(graph.idOf(s), graph.idOf(t), graph);
+                if (expected[s][t] == INF) {
+                    assertTrue(result.getPath().isEmpty(), "s=" + s + " t=" + t);
+                } else {
+                    assertEquals(expected[s][t], length(graph, result.getPath()), "s=" + s + " t=" + t);
+                }
+            }
+        }
+    }
+
+    @Test
+    void negativeWeightDagsMatchFloydWarshall() {
+        for (long seed = 1; seed <= 5; seed++) {
+            assertMatchesFloydWarshall(withNegativeWeights(randomGraph(200, 800, seed), true));
+        }
+    }
+
+    @Test
+    void nonNegativeGraphsMatchFloydWarshall() {
+        for (long seed = 1; seed <= 5; seed++) {
+            assertMatchesFloydWarshall(randomGraph(200, 600, seed));
+        }
+    }
+
+    @Test
+    void returnsATrulyNegativeCycle() {
+        BellmanFordSolver solver = new BellmanFordSolver();
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = withNegativeWeights(randomGraph(200, 600, seed), false);
+            long[][] reference = floydWarshall(graph);
+            for (int s = 0; s < graph.vertexCount(); s += 17) {
+                boolean reachesNegativeCycle = false;
+                for (int v = 0; v < graph.vertexCount(); v++) {
+                    reachesNegativeCycle |= reference[s][v] != INF && reference[v][v] < 0;
+                }
+                ShortestPathTree tree = solver.shortestPathTree(graph.idOf(s), graph);
+                assertEquals(reachesNegativeCycle, tree.hasNegativeCycle(), "s=" + s);
+                if (!tree.hasNegativeCycle()) continue;
+
+                // Circuit fermé dans le sens des arcs, de poids total strictement négatif
+                List<UUID> cycle = tree.getNegativeCycle();
+                long total = length(graph, cycle)
+                        + arc(graph, graph.indexOf(cycle.get(cycle.size() - 1)), graph.indexOf(cycle.get(0)));
+                assertTrue(total < 0, "s=" + s + " circuit de poids " + total);
+                assertTrue(reference[s][graph.indexOf(cycle.get(0))] != INF, "circuit inaccessible depuis s=" + s);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le moteur à tas indexé de {@link DijkstraSolver} à l'ancienne implémentation
+ * (PriorityQueue de UUID ordonnée par une HashMap de distances), sur un graphe aléatoire
+ * creux de degré moyen 4.
+ *
+ * L'ancienne implémentation parcourt tout le graphe avant de lire le chemin : elle se compare
+ * à {@link #indexedHeapFullTree}, qui calcule lui aussi l'arbre complet. Les recherches avec
+ * arrêt sur la cible (simple et bidirectionnelle) mesurent en plus le gain de l'arrêt anticipé.
+ *
+ * Lancement : mvn test-compile puis exécuter {@link #main} avec le classpath de test, ou
+ * directement depuis l'IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"10000", "100000"})
+    int vertices;
+
+    private CompactGraph graph;
+    private Map<UUID, List<Neighbor>> adjacency;
+    private UUID[] sources;
+    private UUID[] targets;
+    private final DijkstraSolver solver = new DijkstraSolver();
+    private int query;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        CompactGraph.Builder builder = CompactGraph.builder(vertices * 4);
+        adjacency = new HashMap<>();
+        UUID[] ids = new UUID[vertices];
+        for (int i = 0; i < vertices; i++) {
+            ids[i] = UUID.randomUUID();
+            adjacency.put(ids[i], new ArrayList<>());
+        }
+        for (int i = 0; i < vertices * 4; i++) {
+            UUID from = ids[random.nextInt(vertices)];
+            UUID to = ids[random.nextInt(vertices)];
+            int weight = 1 + random.nextInt(100);
+            builder.addEdge(from, to, weight);
+            adjacency.get(from).add(new Neighbor(to, weight));
+        }
+        graph = builder.build();
+
+        sources = new UUID[QUERIES];
+        targets = new UUID[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = ids[random.nextInt(vertices)];
+            targets[i] = ids[random.nextInt(vertices)];
+        }
+    }
+
+    @Benchmark
+    public List<UUID> legacy() {
+        int i = query++ & (QUERIES - 1);
+        return legacyShortestPath(sources[i], targets[i], adjacency);
+    }
+
+    @Benchmark
+    public PathResult indexedHeapFullTree() {
+        int i = query++ & (QUERIES - 1);
+        return solver.shortestPathTree(sources[i], graph).toPathResult(targets[i]);
+    }
+
+    @Benchmark
+    public PathResult indexedHeapEarlyExit() {
+        int i = query++ & (QUERIES - 1);
+        return solver.findShortestPath(sources[i], targets[i], graph);
+    }
+
+    @Benchmark
+    public PathResult indexedHeapBidirectional() {
+        int i = query++ & (QUERIES - 1);
+        return solver.findShortestPathBidirectional(sources[i], targets[i], graph);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DijkstraBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private record Neighbor(UUID id, int weight) {
+    }
+
+    // Ancienne version de DijkstraSolver, conservée telle quelle comme référence
+    private static List<UUID> legacyShortestPath(UUID source, UUID target, Map<UUID, List<Neighbor>> graph) {
+        Map<UUID, Integer> distances = new HashMap<>();
+        Map<UUID, UUID> previous = new HashMap<>();
+        Set<UUID> visited = new HashSet<>();
+        PriorityQueue<UUID> queue = new PriorityQueue<>(Comparator.comparingInt(distances::get));
+
+        for (UUID node : graph.keySet()) {
+            distances.put(node, Integer.MAX_VALUE);
+        }
+
+        distances.put(source, 0);
+        queue.add(source);
+
+        while (!queue.isEmpty()) {
+            UUID current = queue.poll();
+            if (visited.contains(current)) continue;
+            visited.add(current);
+
+            if (!graph.containsKey(current)) continue;
+
+            for (Neighbor neighbor : graph.get(current)) {
+                if (visited.contains(neighbor.id)) continue;
+
+                int newDist = distances.get(current) + neighbor.weight;
+                if (newDist < distances.getOrDefault(neighbor.id, Integer.MAX_VALUE)) {
+                    distances.put(neighbor.id, newDist);
+                    previous.put(neighbor.id, current);
+                    queue.add(neighbor.id);
+                }
+            }
+        }
+
+        List<UUID> path = new ArrayList<>();
+        UUID step = target;
+        while (step != null && previous.containsKey(step)) {
+            path.add(step);
+            step = previous.get(step);
+        }
+        if (step == source) path.add(source);
+        Collections.reverse(path);
+
+        return path.isEmpty() || path.get(0) != source ? List.of() : path;
+    }
+}
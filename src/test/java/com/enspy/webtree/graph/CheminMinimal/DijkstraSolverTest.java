@@ -0,0 +1,70 @@
+package com.enspy.webtree.graph.CheminMinimal;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DijkstraSolverTest {
+
+    // Longueur d'un chemin en prenant l'arc le plus léger entre deux sommets consécutifs
+    private static long length(CompactGraph graph, List<UUID> path) {
+        long total = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int u = graph.indexOf(path.get(i - 1));
+            int v = graph.indexOf(path.get(i));
+            long best = Long.MAX_VALUE;
+            for (int e = graph.offsets()[u]; e < graph.offsets()[u + 1]; e++) {
+                if (graph.targets()[e] == v) best = Math.min(best, graph.weights()[e]);
+            }
+            assertTrue(best != Long.MAX_VALUE, "arc absent " + path.get(i - 1) + " -> " + path.get(i));
+            total += best;
+        }
+        return total;
+    }
+
+    @Test
+    void bidirectionalMatchesShortestPathTree() {
+        DijkstraSolver solver = new DijkstraSolver();
+        int unreachable = 0;
+        for (long seed = 1; seed <= 5; seed++) {
+            // Peu d'arcs par sommet : une partie des couples n'est pas reliée
+            CompactGraph graph = randomGraph(300, 450, seed);
+            int n = graph.vertexCount();
+            for (int s = 0; s < n; s += 11) {
+                ShortestPathTree tree = solver.shortestPathTree(graph.idOf(s), graph);
+                for (int t = 0; t < n; t += 3) {
+                    PathResult result = solver.findShortestPathBidirectional(graph.idOf(s), graph.idOf(t), graph);
+                    List<UUID> path = result.getPath();
+                    if (!tree.isReached(t)) {
+                        assertTrue(path.isEmpty(), "s=" + s + " t=" + t);
+                        unreachable++;
+                        continue;
+                    }
+                    assertEquals(graph.idOf(s), path.get(0), "s=" + s + " t=" + t);
+                    assertEquals(graph.idOf(t), path.get(path.size() - 1), "s=" + s + " t=" + t);
+                    assertEquals(tree.distance(t), length(graph, path), "s=" + s + " t=" + t);
+                }
+            }
+        }
+        assertTrue(unreachable > 0, "aucun couple non relié tiré");
+    }
+
+    @Test
+    void bidirectionalHandlesSourceEqualToTargetAndUnknownVertices() {
+        DijkstraSolver solver = new DijkstraSolver();
+        CompactGraph graph = randomGraph(50, 200, 1);
+        UUID v = graph.idOf(0);
+        assertEquals(List.of(v), solver.findShortestPathBidirectional(v, v, graph).getPath());
+
+        UUID unknown = new UUID(1, 1);
+        assertTrue(solver.findShortestPathBidirectional(v, unknown, graph).getPath().isEmpty());
+        assertTrue(solver.findShortestPathBidirectional(unknown, v, graph).getPath().isEmpty());
+        assertTrue(solver.findShortestPathBidirectional(unknown, unknown, graph).getPath().isEmpty());
+    }
+}
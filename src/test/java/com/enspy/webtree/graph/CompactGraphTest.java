@@ -0,0 +1,70 @@
+package com.enspy.webtree.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CompactGraphTest {
+
+    private static void assertSameGraph(CompactGraph expected, CompactGraph actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        for (int v = 0; v < expected.vertexCount(); v++) assertEquals(expected.idOf(v), actual.idOf(v), "v=" + v);
+        assertArrayEquals(expected.offsets(), actual.offsets());
+        assertArrayEquals(expected.targets(), actual.targets());
+        assertArrayEquals(expected.weights(), actual.weights());
+    }
+
+    // Transposé recalculé de zéro, sans celui éventuellement reporté par withEdge
+    private static CompactGraph freshReverse(CompactGraph graph) {
+        return new CompactGraph(graph.index(), graph.offsets(), graph.targets(), graph.weights()).reverse();
+    }
+
+    @Test
+    void withEdgeMatchesBuilderAndCarriesReverse() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            int initial = 300;
+            int added = 200;
+            UUID[] sources = new UUID[initial + added];
+            UUID[] targets = new UUID[initial + added];
+            int[] weights = new int[initial + added];
+            for (int i = 0; i < sources.length; i++) {
+                // Les arcs ajoutés font aussi apparaître de nouveaux sommets
+                int vertices = i < initial ? 100 : 150;
+                sources[i] = new UUID(0, random.nextInt(vertices));
+                targets[i] = new UUID(0, random.nextInt(vertices));
+                weights[i] = random.nextInt(19) - 9;
+            }
+
+            CompactGraph.Builder builder = CompactGraph.builder();
+            for (int i = 0; i < initial; i++) builder.addEdge(sources[i], targets[i], weights[i]);
+            CompactGraph graph = builder.build();
+            graph.reverse(); // Transposé calculé : withEdge doit ensuite le reporter
+            int[] initialTargets = graph.targets().clone();
+
+            CompactGraph first = graph;
+            for (int i = initial; i < sources.length; i++) {
+                CompactGraph next = graph.withEdge(sources[i], targets[i], weights[i]);
+                builder.addEdge(sources[i], targets[i], weights[i]);
+                assertSameGraph(builder.build(), next);
+                assertSameGraph(freshReverse(next), next.reverse());
+                assertSame(next, next.reverse().reverse());
+                graph = next;
+            }
+            // Copy-on-write : le graphe de départ n'a pas bougé
+            assertArrayEquals(initialTargets, first.targets());
+
+            GraphStats stats = graph.stats();
+            GraphStats expected = builder.build().stats();
+            assertEquals(expected.getVertexCount(), stats.getVertexCount());
+            assertEquals(expected.getEdgeCount(), stats.getEdgeCount());
+            assertEquals(expected.getMinWeight(), stats.getMinWeight());
+            assertEquals(expected.getMaxWeight(), stats.getMaxWeight());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.enspy.webtree.graph;
+
+import com.enspy.webtree.repositories.RelationSequence;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static com.enspy.webtree.graph.RandomGraphs.withNegativeWeights;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GraphSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenGraphIsReadBackUnchanged() throws IOException {
+        RelationSequence sequence = new RelationSequence(42, 7);
+        for (long seed = 1; seed <= 3; seed++) {
+            CompactGraph graph = withNegativeWeights(randomGraph(500, 2000, seed), false);
+            Path path = directory.resolve("graph-" + seed + ".bin");
+            GraphSnapshotFile.write(path, graph, sequence);
+
+            CompactGraph read = GraphSnapshotFile.read(path, sequence);
+            assertNotNull(read);
+            assertEquals(graph.vertexCount(), read.vertexCount());
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                assertEquals(graph.idOf(v), read.idOf(v), "v=" + v);
+                assertEquals(v, read.indexOf(graph.idOf(v)), "v=" + v);
+            }
+            assertArrayEquals(graph.offsets(), read.offsets());
+            assertArrayEquals(graph.targets(), read.targets());
+            assertArrayEquals(graph.weights(), read.weights());
+        }
+    }
+
+    @Test
+    void mismatchedSequenceIsIgnored() throws IOException {
+        Path path = directory.resolve("graph.bin");
+        GraphSnapshotFile.write(path, randomGraph(100, 300, 1), new RelationSequence(42, 7));
+
+        assertNull(GraphSnapshotFile.read(path, new RelationSequence(42, 8)));  // Relation écrite depuis
+        assertNull(GraphSnapshotFile.read(path, new RelationSequence(43, 7)));  // Autre base
+        assertNull(GraphSnapshotFile.read(directory.resolve("absent.bin"), new RelationSequence(42, 7)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.enspy.webtree.graph;
+
+import java.util.Random;
+import java.util.UUID;
+
+// Graphes aléatoires reproductibles partagés par les tests des moteurs de graphe
+public final class RandomGraphs {
+
+    private RandomGraphs() {
+    }
+
+    // edges arcs tirés uniformément entre vertices sommets, poids de 1 à 9 ; boucles et arcs multiples possibles
+    public static CompactGraph randomGraph(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        CompactGraph.Builder builder = CompactGraph.builder(edges);
+        for (int i = 0; i < edges; i++) {
+            builder.addEdge(new UUID(0, random.nextInt(vertices)), new UUID(0, random.nextInt(vertices)), 1 + random.nextInt(9));
+        }
+        return builder.build();
+    }
+
+    // Poids décalés de -5 (de -4 à 4) ; acyclic : arcs orientés du plus petit indice vers le plus grand
+    public static CompactGraph withNegativeWeights(CompactGraph graph, boolean acyclic) {
+        int[] sources = graph.edgeSources();
+        CompactGraph.Builder builder = CompactGraph.builder(graph.edgeCount());
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int u = sources[e];
+            int v = graph.targets()[e];
+            if (acyclic && u == v) continue;
+            int from = acyclic ? Math.min(u, v) : u;
+            int to = acyclic ? Math.max(u, v) : v;
+            builder.addEdge(graph.idOf(from), graph.idOf(to), graph.weights()[e] - 5);
+        }
+        return builder.build();
+    }
+}
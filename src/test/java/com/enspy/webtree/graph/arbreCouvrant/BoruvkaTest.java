@@ -0,0 +1,53 @@
+package com.enspy.webtree.graph.arbreCouvrant;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoruvkaTest {
+
+    // Mêmes arcs, tous de poids 1 : chaque choix se fait au départage
+    private static CompactGraph withUniformWeights(CompactGraph graph) {
+        int[] sources = graph.edgeSources();
+        CompactGraph.Builder builder = CompactGraph.builder(graph.edgeCount());
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            builder.addEdge(graph.idOf(sources[e]), graph.idOf(graph.targets()[e]), 1);
+        }
+        return builder.build();
+    }
+
+    // Edge n'a pas d'égalité de valeur : comparaison sur (from, to, weight), dans l'ordre
+    static List<List<Object>> values(Collection<Edge> edges) {
+        List<List<Object>> values = new ArrayList<>(edges.size());
+        for (Edge edge : edges) values.add(List.of(edge.from, edge.to, edge.weight));
+        return values;
+    }
+
+    @Test
+    void sameEdgesAsKruskalWithTiedWeights() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Boruvka boruvka = new Boruvka(pool);
+            Kruskal kruskal = new Kruskal();
+            // Poids de 1 à 9 (nombreux ex aequo) puis tous égaux ; 60 000 arcs : plusieurs tranches par tour
+            for (long seed = 1; seed <= 3; seed++) {
+                for (CompactGraph graph : new CompactGraph[]{
+                        randomGraph(20_000, 60_000, seed),
+                        withUniformWeights(randomGraph(20_000, 60_000, seed)),
+                        randomGraph(300, 2_000, seed)}) {
+                    assertEquals(values(kruskal.findMST(graph)), values(boruvka.findMST(graph)));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
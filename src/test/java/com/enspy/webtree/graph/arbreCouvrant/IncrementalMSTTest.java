@@ -0,0 +1,45 @@
+package com.enspy.webtree.graph.arbreCouvrant;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.Edge;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalMSTTest {
+
+    private static long totalWeight(Collection<Edge> edges) {
+        long total = 0;
+        for (Edge edge : edges) total += edge.weight;
+        return total;
+    }
+
+    @Test
+    void weightMatchesKruskalAfterInserts() {
+        Kruskal kruskal = new Kruskal();
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = randomGraph(500, 700, seed);
+            IncrementalMST mst = IncrementalMST.of(graph, kruskal.mstEdges(graph));
+            Random random = new Random(seed);
+            for (int i = 1; i <= 1_500; i++) {
+                // Sommets existants ou nouveaux (jusqu'à 600), poids de 1 à 9 : ex aequo fréquents
+                UUID u = new UUID(0, random.nextInt(600));
+                UUID v = new UUID(0, random.nextInt(600));
+                int w = 1 + random.nextInt(9);
+                graph = graph.withEdge(u, v, w);
+                mst.insert(graph.indexOf(u), graph.indexOf(v), w);
+
+                if (i % 50 == 0) {
+                    Collection<Edge> expected = kruskal.findMST(graph);
+                    assertEquals(expected.size(), mst.edgeCount(), "seed=" + seed + " i=" + i);
+                    assertEquals(totalWeight(expected), totalWeight(mst.edges(graph)), "seed=" + seed + " i=" + i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.enspy.webtree.graph.parcourt;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelBFSTest {
+
+    private static void assertSameDistances(CompactGraph graph, ParallelBFS parallel, int source) {
+        BFS.Result expected = new BFS().sequentialBfs(graph, graph.idOf(source));
+        BFS.Result actual = parallel.bfs(graph, graph.idOf(source));
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            assertEquals(expected.isReached(v), actual.isReached(v), "v=" + v);
+            if (!actual.isReached(v)) continue;
+            assertEquals(expected.distance(v), actual.distance(v), "v=" + v);
+            if (v == source) continue;
+            // Le parent peut différer du séquentiel, mais doit être un voisin entrant du niveau précédent
+            int parent = actual.parent(v);
+            assertEquals(actual.distance(v) - 1, actual.distance(parent), "v=" + v);
+            boolean edge = false;
+            for (int e = offsets[parent]; e < offsets[parent + 1] && !edge; e++) edge = targets[e] == v;
+            assertTrue(edge, "v=" + v);
+        }
+    }
+
+    @Test
+    void distancesMatchSequentialBfs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBFS parallel = new ParallelBFS(pool);
+            // Degré moyen 8 : frontières larges, passage en ascendant ; degré moyen 1,2 : nombreux niveaux étroits
+            for (long seed = 1; seed <= 3; seed++) {
+                CompactGraph dense = randomGraph(20_000, 160_000, seed);
+                CompactGraph sparse = randomGraph(20_000, 24_000, seed);
+                for (int source = 0; source < 5; source++) {
+                    assertSameDistances(dense, parallel, source * 3_001 % dense.vertexCount());
+                    assertSameDistances(sparse, parallel, source * 3_001 % sparse.vertexCount());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.enspy.webtree.graph.parcourt;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.enspy.webtree.graph.RandomGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraversalConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 50;
+
+    @Test
+    void concurrentBfsCallsDoNotInterfere() throws Exception {
+        CompactGraph graph = randomGraph(2_000, 6_000, 42);
+        BFS bfs = new BFS();
+
+        // Résultats attendus calculés séquentiellement, une source par tâche
+        List<UUID> sources = new ArrayList<>();
+        List<Map<UUID, Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UUID source = graph.idOf(i * 97 % graph.vertexCount());
+            sources.add(source);
+            expected.add(bfs.bfs(graph, source).getDistances());
+        }
+
+        runConcurrently(i -> {
+            BFS.Result result = bfs.bfs(graph, sources.get(i));
+            assertEquals(expected.get(i), result.getDistances());
+        });
+    }
+
+    @Test
+    void concurrentDfsCallsDoNotInterfere() throws Exception {
+        List<CompactGraph> graphs = new ArrayList<>();
+        List<Map<UUID, Integer>> expected = new ArrayList<>();
+        DFS dfs = new DFS();
+        for (int i = 0; i < THREADS; i++) {
+            CompactGraph graph = randomGraph(500 + i * 10, 1_500, i);
+            graphs.add(graph);
+            expected.add(dfs.dfs(graph).getFinishTimes());
+        }
+
+        runConcurrently(i -> {
+            DFS.Result result = dfs.dfs(graphs.get(i));
+            assertEquals(expected.get(i), result.getFinishTimes());
+            assertEquals(2 * graphs.get(i).vertexCount(), result.getFinishTimes().values().stream().mapToInt(Integer::intValue).max().orElse(0));
+        });
+    }
+
+    private interface Check {
+        void run(int task) throws Exception;
+    }
+
+    private static void runConcurrently(Check check) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int task = t;
+                Callable<Void> call = () -> {
+                    for (int k = 0; k < CALLS_PER_THREAD; k++) check.run(task);
+                    return null;
+                };
+                futures.add(pool.submit(call));
+            }
+            for (Future<Void> future : futures) future.get();
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.enspy.webtree.graph.parente;
+
+import com.enspy.webtree.graph.CompactGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AncestorIndexTest {
+
+    // Chaque personne reçoit jusqu'à maxParents parents parmi les précédentes, plus extraEdges relations quelconques
+    private static CompactGraph randomFamily(int people, int maxParents, int extraEdges, long seed) {
+        Random random = new Random(seed);
+        CompactGraph.Builder builder = CompactGraph.builder();
+        for (int child = 1; child < people; child++) {
+            int parents = random.nextInt(maxParents + 1);
+            for (int i = 0; i < parents; i++) {
+                builder.addEdge(new UUID(0, random.nextInt(child)), new UUID(0, child), 1);
+            }
+        }
+        for (int i = 0; i < extraEdges; i++) {
+            builder.addEdge(new UUID(0, random.nextInt(people)), new UUID(0, random.nextInt(people)), 1);
+        }
+        return builder.build();
+    }
+
+    // Générations qui séparent v de chacun de ses ancêtres (lui-même compris), -1 sinon
+    private static int[] ancestorDistances(CompactGraph graph, int v) {
+        CompactGraph reverse = graph.reverse();
+        int[] distances = new int[graph.vertexCount()];
+        Arrays.fill(distances, -1);
+        distances[v] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(v);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = reverse.offsets()[u]; e < reverse.offsets()[u + 1]; e++) {
+                int p = reverse.targets()[e];
+                if (distances[p] >= 0) continue;
+                distances[p] = distances[u] + 1;
+                queue.add(p);
+            }
+        }
+        return distances;
+    }
+
+    private static void assertMatchesBruteForce(CompactGraph graph, long seed) {
+        AncestorIndex index = AncestorIndex.of(graph);
+        int n = graph.vertexCount();
+        int[][] distances = new int[n][];
+        for (int v = 0; v < n; v++) distances[v] = ancestorDistances(graph, v);
+
+        Random random = new Random(seed);
+        for (int query = 0; query < 2_000; query++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            int best = Integer.MAX_VALUE;
+            for (int p = 0; p < n; p++) {
+                if (distances[a][p] >= 0 && distances[b][p] >= 0) best = Math.min(best, distances[a][p] + distances[b][p]);
+            }
+
+            AncestorIndex.Kinship kinship = index.kinship(a, b);
+            if (best == Integer.MAX_VALUE) {
+                assertNull(kinship, "a=" + a + " b=" + b);
+                continue;
+            }
+            int da = kinship.getGenerationsFromA();
+            int db = kinship.getGenerationsFromB();
+            assertEquals(best, da + db, "a=" + a + " b=" + b);
+            // Tous les ancêtres communs à exactement (da, db) générations, et eux seuls
+            Set<UUID> expected = new HashSet<>();
+            for (int p = 0; p < n; p++) {
+                if (distances[a][p] == da && distances[b][p] == db) expected.add(graph.idOf(p));
+            }
+            assertEquals(expected, new HashSet<>(kinship.getCommonAncestors()), "a=" + a + " b=" + b);
+            assertEquals(kinship.getCommonAncestors().size(), expected.size());
+        }
+    }
+
+    @Test
+    void singleParentForestMatchesBruteForce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            assertMatchesBruteForce(randomFamily(400, 1, 0, seed), seed);
+        }
+    }
+
+    @Test
+    void twoParentGenealogyMatchesBruteForce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            assertMatchesBruteForce(randomFamily(400, 2, 0, seed), seed);
+        }
+    }
+
+    @Test
+    void cyclicRelationsMatchBruteForce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            assertMatchesBruteForce(randomFamily(300, 2, 30, seed), seed);
+        }
+    }
+}
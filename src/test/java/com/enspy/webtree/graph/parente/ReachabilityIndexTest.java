@@ -0,0 +1,87 @@
+package com.enspy.webtree.graph.parente;
+
+import com.enspy.webtree.graph.CompactGraph;
+import com.enspy.webtree.graph.parcourt.DFS;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReachabilityIndexTest {
+
+    // Arcs tirés au hasard ; acyclic : toujours d'un numéro plus petit vers un plus grand
+    private static CompactGraph randomGraph(int vertices, int edges, boolean acyclic, long seed) {
+        Random random = new Random(seed);
+        CompactGraph.Builder builder = CompactGraph.builder(edges);
+        for (int i = 0; i < edges; i++) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            if (acyclic && u == v) continue;
+            if (acyclic && u > v) {
+                int swap = u;
+                u = v;
+                v = swap;
+            }
+            builder.addEdge(new UUID(0, u), new UUID(0, v), 1);
+        }
+        return builder.build();
+    }
+
+    // Fermeture transitive par un BFS depuis chaque sommet, sans le sommet lui-même
+    private static boolean[][] closure(CompactGraph graph) {
+        int n = graph.vertexCount();
+        boolean[][] reachable = new boolean[n][n];
+        for (int s = 0; s < n; s++) {
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(s);
+            boolean[] seen = new boolean[n];
+            seen[s] = true;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                for (int e = graph.offsets()[u]; e < graph.offsets()[u + 1]; e++) {
+                    int v = graph.targets()[e];
+                    reachable[s][v] = true;
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        queue.add(v);
+                    }
+                }
+            }
+            reachable[s][s] = false; // isAncestor(x, x) vaut toujours faux, même dans un cycle
+        }
+        return reachable;
+    }
+
+    // maxIntervals = 1 : la plupart des sommets n'ont pas d'étiquette et passent par la descente
+    private static void assertMatchesClosure(CompactGraph graph, int maxIntervals) {
+        ReachabilityIndex index = ReachabilityIndex.of(graph, new DFS(), maxIntervals);
+        boolean[][] reachable = closure(graph);
+        int n = graph.vertexCount();
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                assertEquals(reachable[x][y], index.isAncestor(x, y), "x=" + x + " y=" + y);
+            }
+        }
+    }
+
+    @Test
+    void randomDagsMatchBfsClosure() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = randomGraph(300, 600, true, seed);
+            assertMatchesClosure(graph, ReachabilityIndex.MAX_INTERVALS);
+            assertMatchesClosure(graph, 1);
+        }
+    }
+
+    @Test
+    void cyclicGraphsMatchBfsClosure() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompactGraph graph = randomGraph(300, 450, false, seed);
+            assertMatchesClosure(graph, ReachabilityIndex.MAX_INTERVALS);
+            assertMatchesClosure(graph, 1);
+        }
+    }
+}